@@ -0,0 +1,43 @@
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import ChunkUtilities.Chunk;
+import ChunkUtilities.World;
+
+// Terrain generation cost of a new chunk (palette sections + generator), without meshing
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkGenerationBenchmark {
+
+    private World world;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = TerrainFixtures.newWorld();
+    }
+
+    // Chunk at y = 0 holds the grass line, so its sections are mixed (non-uniform)
+    @Benchmark
+    public Chunk generateSurfaceChunk() {
+        return new Chunk(world, 0, 0, 0, false);
+    }
+
+    // Chunk above the surface: every section takes the uniform fast path
+    @Benchmark
+    public Chunk generateAirChunk() {
+        return new Chunk(world, 0, 1, 0, false);
+    }
+
+    // Chunk construction plus one of the synthetic terrains written voxel by voxel
+    @Benchmark
+    public Chunk generateCavesChunk() {
+        return TerrainFixtures.fill(new Chunk(world, 0, 0, 0, false), TerrainFixtures.Terrain.CAVES, TerrainFixtures.SEED);
+    }
+}
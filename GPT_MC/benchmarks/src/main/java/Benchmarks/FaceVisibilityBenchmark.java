@@ -0,0 +1,62 @@
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import Block_Entities.BlockRegistry;
+import ChunkUtilities.Chunk;
+import ChunkUtilities.ChunkMesher;
+import ChunkUtilities.ChunkSnapshot;
+
+// Face visibility for a whole chunk: bitmask columns versus a naive per-voxel neighbor test
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FaceVisibilityBenchmark {
+
+    @Param({"FLAT", "NOISY", "CAVES", "CHECKERBOARD"})
+    public TerrainFixtures.Terrain terrain;
+
+    private ChunkSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        snapshot = TerrainFixtures.createChunk(terrain).snapshot();
+    }
+
+    @Benchmark
+    public int bitmask() {
+        return ChunkMesher.countVisibleFaces(snapshot);
+    }
+
+    @Benchmark
+    public int naive() {
+        int size = Chunk.CHUNK_SIZE;
+        int faces = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                for (int z = 0; z < size; z++) {
+                    if (!BlockRegistry.isSolid(snapshot.getBlockID(x, y, z))) {
+                        continue;
+                    }
+                    faces += isOpen(x, y, z + 1) + isOpen(x, y, z - 1)
+                            + isOpen(x - 1, y, z) + isOpen(x + 1, y, z)
+                            + isOpen(x, y - 1, z) + isOpen(x, y + 1, z);
+                }
+            }
+        }
+        return faces;
+    }
+
+    // 1 if the neighbor voxel does not hide the face (neighbor chunks resolve through their border slices)
+    private int isOpen(int x, int y, int z) {
+        if (((x | y | z) & ~Chunk.CHUNK_MASK) != 0) {
+            return snapshot.isNeighborSolid(x, y, z) ? 0 : 1;
+        }
+        return BlockRegistry.isSolid(snapshot.getBlockID(x, y, z)) ? 0 : 1;
+    }
+}
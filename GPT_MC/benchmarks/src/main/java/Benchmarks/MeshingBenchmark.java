@@ -0,0 +1,63 @@
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import ChunkUtilities.Chunk;
+import ChunkUtilities.ChunkMesher;
+import ChunkUtilities.ChunkSnapshot;
+import ChunkUtilities.MeshData;
+import ChunkUtilities.MeshingMode;
+
+// CPU mesh generation for a whole chunk (every section), per terrain and meshing mode
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MeshingBenchmark {
+
+    @Param({"FLAT", "NOISY", "CAVES", "CHECKERBOARD"})
+    public TerrainFixtures.Terrain terrain;
+
+    @Param({"PER_FACE", "BITMASK", "GREEDY"})
+    public MeshingMode mode;
+
+    private Chunk chunk;
+    private ChunkSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        chunk = TerrainFixtures.createChunk(terrain);
+        snapshot = chunk.snapshot();
+        ChunkMesher.setMeshingMode(mode);
+    }
+
+    // Mesh building only (snapshot taken once)
+    @Benchmark
+    @OperationsPerInvocation(Chunk.SECTION_COUNT)
+    public int buildSections() {
+        int quads = 0;
+        for (int section = 0; section < Chunk.SECTION_COUNT; section++) {
+            MeshData data = ChunkMesher.build(snapshot, section);
+            quads += data.getQuadCount();
+            data.free(); // Off-heap buffers would otherwise leak across invocations
+        }
+        return quads;
+    }
+
+    // Snapshot copy plus mesh building, as a worker sees it
+    @Benchmark
+    public int snapshotAndBuild() {
+        ChunkSnapshot copy = chunk.snapshot();
+        int quads = 0;
+        for (int section = 0; section < Chunk.SECTION_COUNT; section++) {
+            MeshData data = ChunkMesher.build(copy, section);
+            quads += data.getQuadCount();
+            data.free();
+        }
+        return quads;
+    }
+}
@@ -0,0 +1,74 @@
+package Benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ChunkUtilities.Chunk;
+import ChunkUtilities.ChunkMesher;
+import ChunkUtilities.ChunkSnapshot;
+import ChunkUtilities.MeshBuilder;
+import ChunkUtilities.MeshData;
+import ChunkUtilities.MeshingMode;
+import ChunkUtilities.World;
+
+// Checks that the BITMASK mesher emits exactly the faces of PER_FACE (same count, positions, faces and textures)
+// on every fixture terrain, with loaded neighbors on all six sides so seam culling is covered too.
+// Run by 'mvn package' (see pom.xml); throws on the first terrain that differs.
+public class MeshingEquivalenceCheck {
+
+    public static void main(String[] args) {
+        for (TerrainFixtures.Terrain terrain : TerrainFixtures.Terrain.values()) {
+            ChunkSnapshot snapshot = createSurroundedChunk(terrain).snapshot();
+            List<String> perFace = collectQuads(snapshot, MeshingMode.PER_FACE);
+            List<String> bitmask = collectQuads(snapshot, MeshingMode.BITMASK);
+            int counted = ChunkMesher.countVisibleFaces(snapshot);
+
+            if (perFace.size() != bitmask.size() || perFace.size() != counted) {
+                throw new IllegalStateException(terrain + ": PER_FACE has " + perFace.size() + " faces, BITMASK "
+                        + bitmask.size() + ", countVisibleFaces " + counted);
+            }
+            for (int i = 0; i < perFace.size(); i++) {
+                if (!perFace.get(i).equals(bitmask.get(i))) {
+                    throw new IllegalStateException(terrain + ": first differing face: PER_FACE " + perFace.get(i)
+                            + ", BITMASK " + bitmask.get(i));
+                }
+            }
+            System.out.println(terrain + ": " + perFace.size() + " faces, BITMASK matches PER_FACE");
+        }
+        ChunkMesher.setMeshingMode(MeshingMode.BITMASK);
+    }
+
+    // Chunk (0, 0, 0) and its six neighbors, each filled with the terrain from its own seed
+    private static Chunk createSurroundedChunk(TerrainFixtures.Terrain terrain) {
+        World world = TerrainFixtures.newWorld();
+        long seed = TerrainFixtures.SEED;
+        int[][] neighbors = {{0, 0, 1}, {0, 0, -1}, {-1, 0, 0}, {1, 0, 0}, {0, -1, 0}, {0, 1, 0}};
+        for (int[] offset : neighbors) {
+            TerrainFixtures.fill(world.loadChunk(offset[0], offset[1], offset[2], false), terrain, ++seed);
+        }
+        return TerrainFixtures.fill(world.loadChunk(0, 0, 0, false), terrain, TerrainFixtures.SEED);
+    }
+
+    // Every quad of every section as its four packed vertices, sorted so emission order does not matter
+    private static List<String> collectQuads(ChunkSnapshot snapshot, MeshingMode mode) {
+        ChunkMesher.setMeshingMode(mode);
+        List<String> quads = new ArrayList<>();
+        int quadBytes = MeshBuilder.VERTICES_PER_QUAD * MeshBuilder.VERTEX_BYTES;
+        for (int section = 0; section < Chunk.SECTION_COUNT; section++) {
+            MeshData data = ChunkMesher.build(snapshot, section);
+            ByteBuffer vertices = data.getVertexData();
+            for (int quad = 0; quad < data.getQuadCount(); quad++) {
+                StringBuilder key = new StringBuilder();
+                for (int word = 0; word < quadBytes; word += Integer.BYTES) {
+                    key.append(Integer.toHexString(vertices.getInt(quad * quadBytes + word))).append(' ');
+                }
+                quads.add(key.toString());
+            }
+            data.free();
+        }
+        Collections.sort(quads);
+        return quads;
+    }
+}
@@ -0,0 +1,47 @@
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import ChunkUtilities.World;
+import Main.Camera;
+
+// Block picking ray march (the same path used by block breaking and placing)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RaycastBenchmark {
+
+    private World world;
+    private Camera lookingDown; // Hits the grass layer a few voxels below
+    private Camera lookingUp;   // Marches the full reach through air and misses
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = TerrainFixtures.newWorld();
+        for (int cx = -1; cx <= 1; cx++) {
+            for (int cz = -1; cz <= 1; cz++) {
+                world.loadChunk(cx, 0, cz, false);
+            }
+        }
+        lookingDown = new Camera(new Vector3f(0.5f, 19.5f, 0.5f));
+        lookingDown.handleMouseInput(0.0f, -600.0f); // Pitch clamps to -89 degrees
+        lookingUp = new Camera(new Vector3f(0.5f, 19.5f, 0.5f));
+        lookingUp.handleMouseInput(0.0f, 600.0f);
+    }
+
+    @Benchmark
+    public int[] raycastHit() {
+        return lookingDown.findTargetBlock(world);
+    }
+
+    @Benchmark
+    public int[] raycastMiss() {
+        return lookingUp.findTargetBlock(world);
+    }
+}
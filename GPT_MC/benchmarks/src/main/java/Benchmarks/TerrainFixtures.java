@@ -0,0 +1,141 @@
+package Benchmarks;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import Block_Entities.BlockRegistry;
+import ChunkUtilities.Chunk;
+import ChunkUtilities.World;
+
+// Seeded, headless test terrains (no mesh is built and no GL call is made)
+public class TerrainFixtures {
+
+    public enum Terrain {
+        FLAT,         // The default generator: stone, dirt, one grass layer
+        NOISY,        // Rolling heightmap with exposed walls
+        CAVES,        // Solid stone carved by random spherical caves
+        CHECKERBOARD  // Alternating solid/air voxels, the worst case for face count
+    }
+
+    public static final long SEED = 1234L;
+
+    private static final int SIZE = Chunk.CHUNK_SIZE;
+
+    private static boolean registryLoaded = false;
+
+    // blocks.json is needed for solidity lookups; load it once per JVM fork
+    public static synchronized void loadRegistry() {
+        if (registryLoaded) {
+            return;
+        }
+        try {
+            BlockRegistry.load("blocks.json");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load the block registry", e);
+        }
+        registryLoaded = true;
+    }
+
+    // A world without a meshing service whose remesh queue is never flushed, so edits stay CPU-only
+    public static World newWorld() {
+        loadRegistry();
+        return new World();
+    }
+
+    // Chunk (0, 0, 0) of a fresh world filled with the given terrain
+    public static Chunk createChunk(Terrain terrain) {
+        return fill(newWorld().loadChunk(0, 0, 0, false), terrain, SEED);
+    }
+
+    // Overwrite a generated chunk with the given terrain
+    public static Chunk fill(Chunk chunk, Terrain terrain, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        switch (terrain) {
+            case FLAT:
+                break; // Keep the generator's output
+            case NOISY:
+                fillNoisy(chunk, random);
+                break;
+            case CAVES:
+                fillCaves(chunk, random);
+                break;
+            case CHECKERBOARD:
+                fillCheckerboard(chunk);
+                break;
+        }
+        return chunk;
+    }
+
+    private static void fillNoisy(Chunk chunk, SplittableRandom random) {
+        // Bilinear value noise on an 8-voxel lattice, heights between 4 and 27
+        int cells = SIZE / 8 + 1;
+        int[][] lattice = new int[cells][cells];
+        for (int i = 0; i < cells; i++) {
+            for (int j = 0; j < cells; j++) {
+                lattice[i][j] = 4 + random.nextInt(SIZE - 8);
+            }
+        }
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                float fx = (x & 7) / 8.0f;
+                float fz = (z & 7) / 8.0f;
+                int cx = x >> 3;
+                int cz = z >> 3;
+                float top = lattice[cx][cz] * (1 - fx) + lattice[cx + 1][cz] * fx;
+                float bottom = lattice[cx][cz + 1] * (1 - fx) + lattice[cx + 1][cz + 1] * fx;
+                int height = (int) (top * (1 - fz) + bottom * fz);
+                for (int y = 0; y < SIZE; y++) {
+                    int blockID;
+                    if (y < height - 3) {
+                        blockID = 1; // Stone
+                    } else if (y < height) {
+                        blockID = 2; // Dirt
+                    } else if (y == height) {
+                        blockID = 3; // Grass
+                    } else {
+                        blockID = 0; // Air
+                    }
+                    chunk.setBlockID(x, y, z, blockID);
+                }
+            }
+        }
+    }
+
+    private static void fillCaves(Chunk chunk, SplittableRandom random) {
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    chunk.setBlockID(x, y, z, 1); // Stone
+                }
+            }
+        }
+        for (int cave = 0; cave < 24; cave++) {
+            int cx = random.nextInt(SIZE);
+            int cy = random.nextInt(SIZE);
+            int cz = random.nextInt(SIZE);
+            int radius = 2 + random.nextInt(4);
+            for (int y = Math.max(0, cy - radius); y <= Math.min(SIZE - 1, cy + radius); y++) {
+                for (int x = Math.max(0, cx - radius); x <= Math.min(SIZE - 1, cx + radius); x++) {
+                    for (int z = Math.max(0, cz - radius); z <= Math.min(SIZE - 1, cz + radius); z++) {
+                        int dx = x - cx;
+                        int dy = y - cy;
+                        int dz = z - cz;
+                        if (dx * dx + dy * dy + dz * dz <= radius * radius) {
+                            chunk.setBlockID(x, y, z, 0); // Carve out air
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void fillCheckerboard(Chunk chunk) {
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    chunk.setBlockID(x, y, z, ((x + y + z) & 1) == 0 ? 1 : 0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package Benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import Block_Entities.BlockRegistry;
+import ChunkUtilities.Chunk;
+import ChunkUtilities.Voxel;
+import ChunkUtilities.World;
+
+// Voxel reads and writes through the chunk, world and registry APIs
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VoxelAccessBenchmark {
+
+    private static final int RANDOM_COUNT = 4096; // Power of two for masking
+
+    @Param({"FLAT", "CAVES"})
+    public TerrainFixtures.Terrain terrain;
+
+    private World world;
+    private Chunk chunk;
+    private int[] randomIndices; // Packed (y << 10) | (x << 5) | z, as in Chunk.getIndex
+    private int cursor;
+    private int toggle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = TerrainFixtures.newWorld();
+        chunk = TerrainFixtures.fill(world.loadChunk(0, 0, 0, false), terrain, TerrainFixtures.SEED);
+        world.loadChunk(1, 0, 0, false); // Neighbor for cross-chunk world reads
+
+        SplittableRandom random = new SplittableRandom(TerrainFixtures.SEED);
+        randomIndices = new int[RANDOM_COUNT];
+        for (int i = 0; i < RANDOM_COUNT; i++) {
+            randomIndices[i] = random.nextInt(Chunk.CHUNK_VOLUME);
+        }
+    }
+
+    // Every voxel in storage order
+    @Benchmark
+    @OperationsPerInvocation(Chunk.CHUNK_VOLUME)
+    public int getLinear() {
+        int size = Chunk.CHUNK_SIZE;
+        int sum = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                for (int z = 0; z < size; z++) {
+                    sum += chunk.getBlockID(x, y, z);
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_COUNT)
+    public int getRandom() {
+        int sum = 0;
+        for (int index : randomIndices) {
+            sum += chunk.getBlockID((index >> Chunk.CHUNK_SHIFT) & Chunk.CHUNK_MASK, index >> (2 * Chunk.CHUNK_SHIFT), index & Chunk.CHUNK_MASK);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public boolean getVoxelIsSolid() {
+        int index = randomIndices[cursor++ & (RANDOM_COUNT - 1)];
+        Voxel voxel = chunk.getVoxel((index >> Chunk.CHUNK_SHIFT) & Chunk.CHUNK_MASK, index >> (2 * Chunk.CHUNK_SHIFT), index & Chunk.CHUNK_MASK);
+        return voxel.isSolid();
+    }
+
+    @Benchmark
+    public Object registryLookup() {
+        return BlockRegistry.getBlockType(randomIndices[cursor++ & (RANDOM_COUNT - 1)] & 3);
+    }
+
+    // Alternates between stone and dirt so every call is a real write (same solidity, no border invalidation)
+    @Benchmark
+    public void setToggle() {
+        int index = randomIndices[cursor++ & (RANDOM_COUNT - 1)];
+        toggle ^= 1;
+        chunk.setBlockID((index >> Chunk.CHUNK_SHIFT) & Chunk.CHUNK_MASK, index >> (2 * Chunk.CHUNK_SHIFT), index & Chunk.CHUNK_MASK, 1 + toggle);
+    }
+
+    // World reads along a row that crosses the chunk seam at x = 32
+    @Benchmark
+    @OperationsPerInvocation(2 * Chunk.CHUNK_SIZE)
+    public int worldGetAcrossSeam() {
+        int sum = 0;
+        for (int x = 0; x < 2 * Chunk.CHUNK_SIZE; x++) {
+            sum += world.getBlockID(x, 10, 7);
+        }
+        return sum;
+    }
+}
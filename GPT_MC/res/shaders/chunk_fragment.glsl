@@ -0,0 +1,11 @@
+#version 330 core
+out vec4 FragColor;
+
+in vec2 fragTexCoord;
+flat in float fragTextureLayer;
+
+uniform sampler2DArray textureArray; // Every block texture, one layer per BlockRegistry texture index
+
+void main() {
+    FragColor = texture(textureArray, vec3(fragTexCoord, fragTextureLayer));
+}
@@ -0,0 +1,38 @@
+#version 330 core
+// Packed chunk vertex (see ChunkUtilities.MeshBuilder):
+//   x: x (6 bits) | y (6) | z (6) | face slot (3) | corner (2)
+//   y: texture index (16 bits) | quad width (6) | quad height (6)
+layout(location = 0) in uvec2 packedVertex;
+// Chunk position in voxels relative to the camera's chunk, per draw: an instanced attribute selected by the draw's
+// baseInstance on the indirect path, or a constant attribute value set per chunk on the fallback path (see ChunkRenderer)
+layout(location = 1) in ivec3 chunkOrigin;
+
+out vec2 fragTexCoord;
+flat out float fragTextureLayer;
+
+uniform float voxelSize;
+uniform int missingTextureLayer; // Last layer of the texture array
+uniform mat4 view; // Relative to the camera's chunk as well
+uniform mat4 projection;
+
+const vec2 CORNER_UV[4] = vec2[4](vec2(0.0, 0.0), vec2(1.0, 0.0), vec2(1.0, 1.0), vec2(0.0, 1.0));
+
+void main() {
+    uint position = packedVertex.x;
+    uint attributes = packedVertex.y;
+
+    ivec3 localPosition = ivec3(int(position & 63u), int((position >> 6) & 63u), int((position >> 12) & 63u));
+    uint corner = (position >> 21) & 3u;
+    vec2 quadSize = vec2(float((attributes >> 16) & 63u), float((attributes >> 22) & 63u));
+
+    // Tile the texture once per voxel across merged quads
+    fragTexCoord = CORNER_UV[corner] * quadSize;
+
+    // The texture index is the array layer; NO_TEXTURE (0xFFFF) falls back to the missing texture
+    fragTextureLayer = float(min(attributes & 0xFFFFu, uint(missingTextureLayer)));
+
+    // Integer add first, then one conversion to float: the sum is small (distance to the camera's chunk),
+    // so the position keeps full float precision wherever the camera is in the world
+    vec3 viewRelativePosition = vec3(chunkOrigin + localPosition) * voxelSize;
+    gl_Position = projection * view * vec4(viewRelativePosition, 1.0);
+}
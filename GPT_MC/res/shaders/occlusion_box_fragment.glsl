@@ -0,0 +1,8 @@
+#version 330 core
+
+out vec4 FragColor;
+
+void main() {
+    // Color writes are masked off; the query only counts samples that pass the depth test
+    FragColor = vec4(1.0);
+}
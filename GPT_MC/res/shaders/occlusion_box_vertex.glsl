@@ -0,0 +1,11 @@
+#version 330 core
+
+// Corner of a section bounding box, in world units (see ChunkUtilities.OcclusionQueries)
+layout(location = 0) in vec3 position;
+
+uniform mat4 projection;
+uniform mat4 view;
+
+void main() {
+    gl_Position = projection * view * vec4(position, 1.0);
+}
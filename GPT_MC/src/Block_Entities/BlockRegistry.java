@@ -0,0 +1,201 @@
+package Block_Entities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Block registry compiled from res/blocks.json.
+// After load() every block property lives in a flat array indexed directly by block ID,
+// so hot paths (meshing, raycasts) do a single array read instead of a map lookup.
+public class BlockRegistry {
+    // Face slots, in the order used by the "textures" array of blocks.json
+    public static final int FACE_FRONT = 0; // +Z
+    public static final int FACE_BACK = 1; // -Z
+    public static final int FACE_LEFT = 2; // -X
+    public static final int FACE_RIGHT = 3; // +X
+    public static final int FACE_BOTTOM = 4; // -Y
+    public static final int FACE_TOP = 5; // +Y
+    public static final int FACE_COUNT = 6;
+
+    public static final int NO_TEXTURE = -1; // Texture index for faces without a texture (air)
+    public static final int MAX_BLOCK_ID = 0xFFFF; // Largest registrable ID: palettes store at most 16 bits per block
+
+    // Frozen per-block tables (indexed by block ID)
+    private static Block_Types[] blockTypes = new Block_Types[0];
+    private static long[] solidBits = new long[0]; // One bit per block ID
+    private static float[] destroyTimes = new float[0];
+    private static int[] durabilities = new int[0];
+    private static int[] resistances = new int[0];
+    private static int[] faceTextures = new int[0]; // blockID * FACE_COUNT + face -> texture index
+
+    // Texture table (indexed by texture index)
+    private static String[] texturePaths = new String[0];
+
+    // Load the registry from a classpath resource (e.g. "blocks.json" from res/)
+    public static void load(String resourcePath) throws IOException {
+        InputStream inputStream = BlockRegistry.class.getClassLoader().getResourceAsStream(resourcePath);
+        if (inputStream == null) {
+            throw new IOException("Block registry file not found: " + resourcePath);
+        }
+        try (InputStream in = inputStream) {
+            load(in);
+        }
+    }
+
+    public static void load(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        in.transferTo(bytes);
+        Object root = JsonParser.parse(bytes.toString(StandardCharsets.UTF_8));
+        if (!(root instanceof Map) || !(((Map<?, ?>) root).get("blocks") instanceof List)) {
+            throw new IOException("Block registry must be an object with a \"blocks\" array");
+        }
+
+        List<Block_Types> types = new ArrayList<>();
+        for (Object entry : (List<?>) ((Map<?, ?>) root).get("blocks")) {
+            if (!(entry instanceof Map)) {
+                throw new IOException("Block registry entry is not an object: " + entry);
+            }
+            types.add(parseBlock((Map<?, ?>) entry));
+        }
+        freeze(types);
+        System.out.println("Block registry loaded: " + types.size() + " blocks, " + texturePaths.length + " textures");
+    }
+
+    private static Block_Types parseBlock(Map<?, ?> entry) throws IOException {
+        int blockID = getNumber(entry, "blockID").intValue();
+        if (blockID < 0 || blockID > MAX_BLOCK_ID) {
+            throw new IOException("blockID out of range: " + blockID);
+        }
+        Object textureList = entry.get("textures");
+        if (!(textureList instanceof List) || ((List<?>) textureList).size() != FACE_COUNT) {
+            throw new IOException("Block " + blockID + " must define exactly " + FACE_COUNT + " textures");
+        }
+        String[] textures = new String[FACE_COUNT];
+        for (int face = 0; face < FACE_COUNT; face++) {
+            Object texture = ((List<?>) textureList).get(face);
+            textures[face] = texture != null ? texture.toString() : "";
+        }
+        Object isSolid = entry.get("isSolid");
+        Object name = entry.get("name");
+        return new Block_Types(blockID,
+                getNumber(entry, "destroyTime").floatValue(),
+                getNumber(entry, "durability").intValue(),
+                getNumber(entry, "resistance").intValue(),
+                textures,
+                Boolean.TRUE.equals(isSolid),
+                name != null ? name.toString() : "Block " + blockID);
+    }
+
+    private static Number getNumber(Map<?, ?> entry, String key) throws IOException {
+        Object value = entry.get(key);
+        if (!(value instanceof Number)) {
+            throw new IOException("Block registry entry is missing numeric field \"" + key + "\": " + entry);
+        }
+        return (Number) value;
+    }
+
+    // Build the flat lookup tables from the parsed block types
+    private static void freeze(List<Block_Types> types) throws IOException {
+        int maxID = 0;
+        for (Block_Types type : types) {
+            maxID = Math.max(maxID, type.getBlockID());
+        }
+        int idCount = maxID + 1;
+
+        Block_Types[] newTypes = new Block_Types[idCount];
+        long[] newSolidBits = new long[(idCount + 63) >>> 6];
+        float[] newDestroyTimes = new float[idCount];
+        int[] newDurabilities = new int[idCount];
+        int[] newResistances = new int[idCount];
+        int[] newFaceTextures = new int[idCount * FACE_COUNT];
+        Arrays.fill(newFaceTextures, NO_TEXTURE);
+
+        // Each distinct texture path gets one texture index
+        Map<String, Integer> textureIndices = new HashMap<>();
+        List<String> paths = new ArrayList<>();
+
+        for (Block_Types type : types) {
+            int id = type.getBlockID();
+            if (newTypes[id] != null) {
+                throw new IOException("Duplicate blockID in block registry: " + id);
+            }
+            newTypes[id] = type;
+            if (type.isSolid()) {
+                newSolidBits[id >>> 6] |= 1L << id;
+            }
+            newDestroyTimes[id] = type.getDestroyTime();
+            newDurabilities[id] = type.getDurability();
+            newResistances[id] = type.getResistance();
+
+            String[] textures = type.getTextures();
+            for (int face = 0; face < FACE_COUNT; face++) {
+                String path = textures[face];
+                if (path.isEmpty()) {
+                    continue;
+                }
+                Integer index = textureIndices.get(path);
+                if (index == null) {
+                    index = paths.size();
+                    textureIndices.put(path, index);
+                    paths.add(path);
+                }
+                newFaceTextures[id * FACE_COUNT + face] = index;
+            }
+        }
+
+        blockTypes = newTypes;
+        solidBits = newSolidBits;
+        destroyTimes = newDestroyTimes;
+        durabilities = newDurabilities;
+        resistances = newResistances;
+        faceTextures = newFaceTextures;
+        texturePaths = paths.toArray(new String[0]);
+    }
+
+    // Lookups (unknown IDs behave like air)
+
+    public static Block_Types getBlockType(int blockID) {
+        return blockID >= 0 && blockID < blockTypes.length ? blockTypes[blockID] : null;
+    }
+
+    public static boolean isSolid(int blockID) {
+        int word = blockID >>> 6;
+        return word < solidBits.length && ((solidBits[word] >>> blockID) & 1L) != 0;
+    }
+
+    public static float getDestroyTime(int blockID) {
+        return blockID >= 0 && blockID < destroyTimes.length ? destroyTimes[blockID] : 0.0f;
+    }
+
+    public static int getDurability(int blockID) {
+        return blockID >= 0 && blockID < durabilities.length ? durabilities[blockID] : 0;
+    }
+
+    public static int getResistance(int blockID) {
+        return blockID >= 0 && blockID < resistances.length ? resistances[blockID] : 0;
+    }
+
+    // Texture index for one face of a block (see the FACE_* constants), or NO_TEXTURE
+    public static int getFaceTexture(int blockID, int face) {
+        int index = blockID * FACE_COUNT + face;
+        return blockID >= 0 && index < faceTextures.length ? faceTextures[index] : NO_TEXTURE;
+    }
+
+    public static String getTexturePath(int textureIndex) {
+        return texturePaths[textureIndex];
+    }
+
+    public static int getTextureCount() {
+        return texturePaths.length;
+    }
+
+    public static int getBlockIDLimit() {
+        return blockTypes.length;
+    }
+}
@@ -1,86 +1,550 @@
-package ChunkUtilities;
-
-public class Chunk {
-    private static final int CHUNK_SIZE = 17; // Size of the chunk cube
-    private Voxel[][][] voxels;
-    private ChunkMesh chunkMesh;
-    public static float VoxelSize;
-
-    public Chunk() {
-        // Set the voxel size to 1.0f
-        VoxelSize = 1f;
-        voxels = new Voxel[CHUNK_SIZE][CHUNK_SIZE][CHUNK_SIZE];
-
-        // Initialize the chunk with different layers of blocks (or air)
-        for (int x = 0; x < CHUNK_SIZE; x++) {
-            for (int y = 0; y < CHUNK_SIZE; y++) {
-                for (int z = 0; z < CHUNK_SIZE; z++) {
-                    if (y < 12) { 
-                        // Below y = 12, fill with stone
-                        voxels[x][y][z] = new Voxel(1); // Block ID 1 for stone
-                    } else if (y >= 12 && y < 15) {
-                        // Between y = 12 and y = 14, fill with dirt
-                        voxels[x][y][z] = new Voxel(2); // Block ID 2 for dirt
-                    } else if (y == 15) {
-                        // At y = 15, place grass
-                        voxels[x][y][z] = new Voxel(3); // Block ID 3 for grass
-                    } else {
-                        // Above y = 15, leave as air
-                        voxels[x][y][z] = new Voxel(0); // Block ID 0 for air
-                    }
-                }
-            }
-        }
-
-
-        // Generate initial mesh
-        generateMesh(); // Use the generateMesh method to initialize the mesh
-    }
-
-    public Voxel getVoxel(int x, int y, int z) {
-        // Check for out-of-bounds access
-        if (x < 0 || x >= CHUNK_SIZE || y < 0 || y >= CHUNK_SIZE || z < 0 || z >= CHUNK_SIZE) {
-            // Return air voxel for out-of-bounds requests
-            return Voxel.AIR; 
-        }
-        // Return the voxel or air if it's null
-        return voxels[x][y][z] != null ? voxels[x][y][z] : Voxel.AIR;
-    }
-
-    public void setVoxel(int x, int y, int z, Voxel voxel) {
-        // Set the voxel in the chunk
-        if (x >= 0 && x < CHUNK_SIZE && y >= 0 && y < CHUNK_SIZE && z >= 0 && z < CHUNK_SIZE) {
-            voxels[x][y][z] = voxel;
-            updateMesh(); // Update the mesh after setting a voxel
-        }
-    }
-
-    // Method to update the mesh after voxel changes
-    public void updateMesh() {
-        if (chunkMesh != null) {
-            chunkMesh.cleanup(); // Clean up the old mesh
-        }
-        chunkMesh = new ChunkMesh(this); // Generate a new mesh
-    }
-
-    public ChunkMesh getChunkMesh() {
-        return chunkMesh;
-    }
-
-    public static int getChunkSize() {
-        return CHUNK_SIZE;
-    }
-
-    public ChunkMesh generateMesh() {
-        if (chunkMesh != null) {
-            chunkMesh.cleanup(); // Clean up the old mesh
-        }
-        chunkMesh = new ChunkMesh(this); // Rebuild the mesh with the current voxel data
-        return chunkMesh;
-    }
-
-	public Chunk getNeighboringChunk(int nx, int ny, int nz) {
-		// TODO Auto-generated method stub
-		return null;
-	}
-}
+package ChunkUtilities;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import Block_Entities.BlockRegistry;
+
+public class Chunk {
+    // Chunk dimensions are a power of two so coordinates convert with shifts and masks.
+    // CHUNK_SHIFT is the single constant that picks the size (4 = 16, 5 = 32).
+    public static final int CHUNK_SHIFT = 5;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // Size of the chunk cube
+    public static final int CHUNK_MASK = CHUNK_SIZE - 1; // Local coordinate mask
+    public static final int CHUNK_VOLUME = 1 << (3 * CHUNK_SHIFT); // Number of voxels in the chunk
+
+    // Chunks are split into vertical sections of SECTION_HEIGHT rows, each with its own storage.
+    // A section holding a single block keeps no index array (see PaletteStorage.isUniform()).
+    public static final int SECTION_SHIFT = 3;
+    public static final int SECTION_HEIGHT = 1 << SECTION_SHIFT; // Rows per section
+    public static final int SECTION_COUNT = CHUNK_SIZE >> SECTION_SHIFT; // Sections per chunk
+    public static final int SECTION_VOLUME_SHIFT = 2 * CHUNK_SHIFT + SECTION_SHIFT; // log2(voxels per section)
+    public static final int SECTION_VOLUME = 1 << SECTION_VOLUME_SHIFT; // Number of voxels in a section
+    private static final int SECTION_INDEX_MASK = SECTION_VOLUME - 1;
+    public static final int ALL_SECTIONS = (1 << SECTION_COUNT) - 1; // Dirty mask covering every section
+
+    // Level of detail: level n meshes cells of 2^n voxels per side. Cells never span two sections,
+    // so the coarsest level uses one cell row per section.
+    public static final int MAX_LOD_LEVEL = SECTION_SHIFT;
+
+    private final PaletteStorage[] sections; // Palette-compressed block IDs, bottom section first
+    private final ChunkMesh[] sectionMeshes = new ChunkMesh[SECTION_COUNT]; // One GPU mesh per section (null until built)
+    private final MeshKey[] sectionMeshKeys = new MeshKey[SECTION_COUNT]; // Set when the section mesh is shared through the MeshCache
+    private final long[] sectionVisibility = new long[SECTION_COUNT]; // Face connectivity per section (see SectionVisibility)
+    private final int[] sectionVisitFrames = new int[SECTION_COUNT]; // Last OcclusionCuller pass that reached each section
+    public static float VoxelSize;
+
+    private final World world; // World this chunk belongs to (null for a standalone chunk)
+    private final int chunkX, chunkY, chunkZ; // Position in chunk coordinates
+
+    // Per-section mesh versions, bumped on every rebuild request so older results can be recognized as stale
+    private final AtomicIntegerArray meshVersions = new AtomicIntegerArray(SECTION_COUNT);
+    private int dirtySections; // Bit i set = section i needs remeshing
+    private boolean queuedForRemesh; // Already in the world's end-of-frame remesh list
+    private int lodLevel; // Mesh resolution (0 = full detail), chosen by World.updateLevelsOfDetail
+
+    // Cached opacity of the six outer voxel layers, read by neighbors' snapshots (null = recompute).
+    // A slice is never modified after it is built; an edit replaces it, so snapshots can keep the old one.
+    private final long[][] borderSlices = new long[BlockRegistry.FACE_COUNT][];
+    private final long[][] coarseBorderSlices = new long[BlockRegistry.FACE_COUNT][]; // Same, per LOD cell (lodLevel > 0)
+
+    public Chunk() {
+        this(null, 0, 0, 0);
+    }
+
+    public Chunk(World world, int chunkX, int chunkY, int chunkZ) {
+        this(world, chunkX, chunkY, chunkZ, true);
+    }
+
+    // buildMesh = false generates the terrain only (no meshing and no GL calls, e.g. for headless benchmarks)
+    public Chunk(World world, int chunkX, int chunkY, int chunkZ, boolean buildMesh) {
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.chunkZ = chunkZ;
+
+        // Set the voxel size to 1.0f
+        VoxelSize = 1f;
+        sections = new PaletteStorage[SECTION_COUNT];
+        Arrays.fill(sectionVisibility, SectionVisibility.ALL); // Not meshed yet: do not hide what lies behind
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            sections[i] = new PaletteStorage(SECTION_VOLUME, 0); // Start as all air (uniform, no array)
+        }
+
+        generateTerrain();
+
+        // Generate initial mesh
+        if (buildMesh) {
+            generateMesh(); // Use the generateMesh method to initialize the mesh
+        }
+    }
+
+    // Layered terrain based on the world height. Sections whose rows all get the same block are
+    // filled as uniform sections, so sky and deep stone never allocate an index array.
+    private void generateTerrain() {
+        for (int section = 0; section < SECTION_COUNT; section++) {
+            int firstY = section << SECTION_SHIFT;
+            int firstBlockID = getGeneratedBlockID((chunkY << CHUNK_SHIFT) | firstY);
+            boolean uniform = true;
+            for (int y = firstY + 1; y < firstY + SECTION_HEIGHT && uniform; y++) {
+                uniform = getGeneratedBlockID((chunkY << CHUNK_SHIFT) | y) == firstBlockID;
+            }
+            if (uniform) {
+                sections[section].fill(firstBlockID);
+                continue;
+            }
+
+            for (int y = firstY; y < firstY + SECTION_HEIGHT; y++) {
+                int blockID = getGeneratedBlockID((chunkY << CHUNK_SHIFT) | y);
+                if (blockID == 0) {
+                    continue; // Sections start as air
+                }
+                for (int x = 0; x < CHUNK_SIZE; x++) {
+                    for (int z = 0; z < CHUNK_SIZE; z++) {
+                        sections[section].set(getIndex(x, y, z) & SECTION_INDEX_MASK, blockID);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int getGeneratedBlockID(int worldY) {
+        if (worldY < 12) { 
+            // Below y = 12, fill with stone
+            return 1; // Block ID 1 for stone
+        } else if (worldY >= 12 && worldY < 15) {
+            // Between y = 12 and y = 14, fill with dirt
+            return 2; // Block ID 2 for dirt
+        } else if (worldY == 15) {
+            // At y = 15, place grass
+            return 3; // Block ID 3 for grass
+        } else {
+            // Above y = 15, leave as air
+            return 0; // Block ID 0 for air
+        }
+    }
+
+    public Voxel getVoxel(int x, int y, int z) {
+        // Out-of-bounds requests read as air (block ID 0)
+        return Voxel.of(getBlockID(x, y, z));
+    }
+
+    public void setVoxel(int x, int y, int z, Voxel voxel) {
+        // A null voxel is stored as air
+        setBlockID(x, y, z, voxel != null ? voxel.getBlockID() : 0);
+    }
+
+    // Primitive accessors for hot paths: no Voxel lookup at all
+    public int getBlockID(int x, int y, int z) {
+        // Check for out-of-bounds access (any bit outside the mask means outside the chunk)
+        if (((x | y | z) & ~CHUNK_MASK) != 0) {
+            // Return air for out-of-bounds requests
+            return 0;
+        }
+        return getBlockIDAt(getIndex(x, y, z));
+    }
+
+    public void setBlockID(int x, int y, int z, int blockID) {
+        // Set the block in the chunk
+        if (((x | y | z) & ~CHUNK_MASK) == 0) {
+            int index = getIndex(x, y, z);
+            int oldBlockID = getBlockIDAt(index);
+            if (oldBlockID == blockID) {
+                return; // Nothing changes, nothing to remesh
+            }
+            sections[index >>> SECTION_VOLUME_SHIFT].set(index & SECTION_INDEX_MASK, blockID);
+            markVoxelDirty(x, y, z); // Remesh the affected sections once at the end of the frame
+            if (BlockRegistry.isSolid(oldBlockID) != BlockRegistry.isSolid(blockID)) {
+                invalidateBorders(x, y, z); // Neighbor chunks cull their seam faces against this voxel
+            }
+            if (world == null) {
+                rebuildDirtySections(); // A standalone chunk has no end-of-frame pass
+            }
+        }
+    }
+
+    // Mark the sections whose mesh depends on a voxel: its own section, and the section above or below
+    // when the voxel lies in the section's bottom or top row (its face there is decided by that neighbor).
+    // At a reduced level of detail the edge "row" is a whole cell row of 2^lodLevel voxel rows.
+    private void markVoxelDirty(int x, int y, int z) {
+        int section = y >>> SECTION_SHIFT;
+        int mask = 1 << section;
+        int row = y & (SECTION_HEIGHT - 1);
+        int edgeRows = 1 << lodLevel;
+        if (row < edgeRows && section > 0) {
+            mask |= 1 << (section - 1);
+        }
+        if (row >= SECTION_HEIGHT - edgeRows && section < SECTION_COUNT - 1) {
+            mask |= 1 << (section + 1);
+        }
+        markSectionsDirty(mask);
+    }
+
+    // Flag sections for remeshing; the world rebuilds them all in one pass at the end of the frame
+    public void markSectionsDirty(int sectionMask) {
+        dirtySections |= sectionMask;
+        if (world != null && !queuedForRemesh && dirtySections != 0) {
+            queuedForRemesh = true;
+            world.queueRemesh(this);
+        }
+    }
+
+    // A voxel in the outer layer (one LOD cell deep) changed solidity: drop the cached slices it belongs to
+    // and remesh the neighbor sections facing it
+    private void invalidateBorders(int x, int y, int z) {
+        int section = 1 << (y >>> SECTION_SHIFT);
+        int depth = 1 << lodLevel; // Voxels that feed the outer cell layer
+        if (z >= CHUNK_SIZE - depth) invalidateBorder(BlockRegistry.FACE_FRONT, x, y, CHUNK_SIZE, section);
+        if (z < depth) invalidateBorder(BlockRegistry.FACE_BACK, x, y, -1, section);
+        if (x < depth) invalidateBorder(BlockRegistry.FACE_LEFT, -1, y, z, section);
+        if (x >= CHUNK_SIZE - depth) invalidateBorder(BlockRegistry.FACE_RIGHT, CHUNK_SIZE, y, z, section);
+        if (y < depth) invalidateBorder(BlockRegistry.FACE_BOTTOM, x, -1, z, 1 << (SECTION_COUNT - 1)); // Neighbor's top section
+        if (y >= CHUNK_SIZE - depth) invalidateBorder(BlockRegistry.FACE_TOP, x, CHUNK_SIZE, z, 1); // Neighbor's bottom section
+    }
+
+    private void invalidateBorder(int face, int nx, int ny, int nz, int neighborSections) {
+        borderSlices[face] = null;
+        coarseBorderSlices[face] = null;
+        Chunk neighbor = getNeighboringChunk(nx, ny, nz);
+        if (neighbor != null) {
+            neighbor.markSectionsDirty(neighborSections);
+        }
+    }
+
+    // Opacity of this chunk's outer voxel layer on a face (BlockRegistry.FACE_*), one long per row:
+    //   FRONT/BACK (z = CHUNK_SIZE - 1 / 0): row y, bit x
+    //   LEFT/RIGHT (x = 0 / CHUNK_SIZE - 1): row y, bit z
+    //   BOTTOM/TOP (y = 0 / CHUNK_SIZE - 1): row x, bit z
+    // The returned array must not be modified. Call from the chunk-editing thread.
+    public long[] getBorderSlice(int face) {
+        long[] slice = borderSlices[face];
+        if (slice == null) {
+            slice = buildBorderSlice(face);
+            borderSlices[face] = slice;
+        }
+        return slice;
+    }
+
+    private long[] buildBorderSlice(int face) {
+        long[] slice = new long[CHUNK_SIZE];
+        int[] dir = ChunkMesher.FACE_DIRECTIONS[face];
+        int layer = dir[0] + dir[1] + dir[2] > 0 ? CHUNK_MASK : 0; // Outer layer on the face's side
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            long bits = 0L;
+            for (int bit = 0; bit < CHUNK_SIZE; bit++) {
+                int blockID;
+                if (face == BlockRegistry.FACE_FRONT || face == BlockRegistry.FACE_BACK) {
+                    blockID = getBlockIDAt(getIndex(bit, row, layer));
+                } else if (face == BlockRegistry.FACE_LEFT || face == BlockRegistry.FACE_RIGHT) {
+                    blockID = getBlockIDAt(getIndex(layer, row, bit));
+                } else {
+                    blockID = getBlockIDAt(getIndex(row, layer, bit));
+                }
+                if (BlockRegistry.isSolid(blockID)) {
+                    bits |= 1L << bit;
+                }
+            }
+            slice[row] = bits;
+        }
+        return slice;
+    }
+
+    // Opacity of this chunk's outer layer of LOD cells (2^lodLevel voxels per side) on a face, in the layout of
+    // getBorderSlice with cells in place of voxels. A cell is solid by the LOD mesher's majority rule
+    // (ChunkMesher.isMajoritySolid), so a neighbor at the same level culls exactly where this chunk's coarse
+    // mesh has a cell. The returned array must not be modified. Call from the chunk-editing thread.
+    public long[] getCoarseBorderSlice(int face) {
+        long[] slice = coarseBorderSlices[face];
+        if (slice == null) {
+            slice = buildCoarseBorderSlice(face);
+            coarseBorderSlices[face] = slice;
+        }
+        return slice;
+    }
+
+    private long[] buildCoarseBorderSlice(int face) {
+        int level = lodLevel;
+        int scale = 1 << level;
+        int cells = CHUNK_SIZE >> level;
+        long[] slice = new long[cells];
+        int[] dir = ChunkMesher.FACE_DIRECTIONS[face];
+        int layer = dir[0] + dir[1] + dir[2] > 0 ? CHUNK_SIZE - scale : 0; // First voxel of the outer cell layer
+        for (int row = 0; row < cells; row++) {
+            long bits = 0L;
+            for (int bit = 0; bit < cells; bit++) {
+                int solid = 0;
+                for (int r = row << level; r < (row + 1) << level; r++) {
+                    for (int b = bit << level; b < (bit + 1) << level; b++) {
+                        for (int l = layer; l < layer + scale; l++) {
+                            int index;
+                            if (face == BlockRegistry.FACE_FRONT || face == BlockRegistry.FACE_BACK) {
+                                index = getIndex(b, r, l);
+                            } else if (face == BlockRegistry.FACE_LEFT || face == BlockRegistry.FACE_RIGHT) {
+                                index = getIndex(l, r, b);
+                            } else {
+                                index = getIndex(r, l, b);
+                            }
+                            if (BlockRegistry.isSolid(getBlockIDAt(index))) {
+                                solid++;
+                            }
+                        }
+                    }
+                }
+                if (ChunkMesher.isMajoritySolid(solid, scale)) {
+                    bits |= 1L << bit;
+                }
+            }
+            slice[row] = bits;
+        }
+        return slice;
+    }
+
+    public boolean isDirty() {
+        return dirtySections != 0;
+    }
+
+    // Linear index of a voxel: y-major, then x, with z innermost so a column along z is contiguous
+    public static int getIndex(int x, int y, int z) {
+        return (y << (2 * CHUNK_SHIFT)) | (x << CHUNK_SHIFT) | z;
+    }
+
+    // Block ID at a linear index (see getIndex), for linear scans over the whole chunk
+    public int getBlockIDAt(int index) {
+        return sections[index >>> SECTION_VOLUME_SHIFT].get(index & SECTION_INDEX_MASK);
+    }
+
+    // True if every voxel of a section holds the same block (no index array allocated)
+    public boolean isSectionUniform(int section) {
+        return sections[section].isUniform();
+    }
+
+    // Block ID filling a uniform section
+    public int getSectionUniformBlockID(int section) {
+        return sections[section].getUniformBlockID();
+    }
+
+    // True if the whole chunk is a single block (e.g. all sky or all deep stone)
+    public boolean isUniform() {
+        int blockID = sections[0].getUniformBlockID();
+        for (PaletteStorage section : sections) {
+            if (!section.isUniform() || section.getUniformBlockID() != blockID) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Approximate memory used by this chunk's block storage in bytes
+    public long getStorageMemoryUsage() {
+        long total = 0;
+        for (PaletteStorage section : sections) {
+            total += section.getMemoryUsage();
+        }
+        return total;
+    }
+
+    // Method to update the mesh after voxel changes: rebuilds every section now
+    // (in the background with a MeshingService, where the current meshes stay visible until then)
+    public void updateMesh() {
+        dirtySections |= ALL_SECTIONS;
+        rebuildDirtySections();
+    }
+
+    // Remesh the dirty sections and clear their flags (called by World.flushRemeshes() once per frame)
+    public void rebuildDirtySections() {
+        int mask = dirtySections;
+        dirtySections = 0;
+        queuedForRemesh = false;
+        if (mask == 0) {
+            return;
+        }
+
+        MeshingService meshingService = world != null ? world.getMeshingService() : null;
+        if (meshingService != null) {
+            meshingService.requestMesh(this, mask);
+            return;
+        }
+
+        // No background mesher: build and upload on the calling (GL) thread
+        for (int section = 0; section < SECTION_COUNT; section++) {
+            if ((mask & (1 << section)) != 0) {
+                nextMeshVersion(section); // Any background build still in flight is now stale
+            }
+        }
+        ChunkSnapshot snapshot = snapshot(mask);
+        for (int section = 0; section < SECTION_COUNT; section++) {
+            if ((mask & (1 << section)) != 0) {
+                MeshData data = ChunkMesher.build(snapshot, section);
+                try {
+                    applyMesh(data);
+                } finally {
+                    data.free();
+                }
+            }
+        }
+    }
+
+    // Immutable copy of the block data (and current section mesh versions) for background meshing
+    public ChunkSnapshot snapshot() {
+        return snapshot(ALL_SECTIONS);
+    }
+
+    // Same, able to mesh only the sections in sectionMask (bit i = section i); copies just what those builds read
+    public ChunkSnapshot snapshot(int sectionMask) {
+        int[] versions = new int[SECTION_COUNT];
+        for (int section = 0; section < SECTION_COUNT; section++) {
+            versions[section] = meshVersions.get(section);
+        }
+        return new ChunkSnapshot(this, versions, sections, lodLevel, sectionMask);
+    }
+
+    public int getLodLevel() {
+        return lodLevel;
+    }
+
+    // Switch to another level of detail. The current meshes stay visible until the new ones are uploaded.
+    // Neighbors are remeshed too: their seam faces depend on whether both chunks use the same level.
+    public void setLodLevel(int level) {
+        level = Math.max(0, Math.min(MAX_LOD_LEVEL, level));
+        if (level == lodLevel) {
+            return;
+        }
+        lodLevel = level;
+        Arrays.fill(coarseBorderSlices, null); // Cells changed size
+        markSectionsDirty(ALL_SECTIONS);
+        if (world != null) {
+            world.markNeighborsDirty(this);
+        } else {
+            rebuildDirtySections(); // A standalone chunk has no end-of-frame pass
+        }
+    }
+
+    public int getMeshVersion(int section) {
+        return meshVersions.get(section);
+    }
+
+    // Start a new mesh version of a section; results built for older versions are discarded
+    int nextMeshVersion(int section) {
+        return meshVersions.incrementAndGet(section);
+    }
+
+    // Upload built geometry for one section (GL thread only)
+    void applyMesh(MeshData data) {
+        int section = data.getSection();
+        sectionVisibility[section] = data.getVisibility();
+        MeshCache meshCache = getMeshCache();
+        if (data.isCacheReference()) {
+            // Same content as a mesh already on the GPU: share it
+            ChunkMesh shared = meshCache != null ? meshCache.acquire(data.getCacheKey()) : null;
+            if (shared == null) {
+                markSectionsDirty(1 << section); // Evicted since the lookup: build it for real next frame
+                return;
+            }
+            releaseSectionMesh(section);
+            sectionMeshes[section] = shared;
+            sectionMeshKeys[section] = data.getCacheKey();
+            return;
+        }
+        if (data.getVertexCount() == 0) {
+            // Nothing visible (e.g. all air): keep no GL objects around for the section
+            releaseSectionMesh(section);
+            return;
+        }
+        if (meshCache != null && data.getCacheKey() != null) {
+            ChunkMesh shared = meshCache.upload(data); // Reference taken before the old mesh is released
+            releaseSectionMesh(section);
+            sectionMeshes[section] = shared;
+            sectionMeshKeys[section] = data.getCacheKey();
+            return;
+        }
+        if (sectionMeshes[section] == null || sectionMeshKeys[section] != null) {
+            releaseSectionMesh(section);
+            sectionMeshes[section] = new ChunkMesh();
+        }
+        sectionMeshes[section].upload(data);
+    }
+
+    public long getSectionVisibility(int section) {
+        return sectionVisibility[section];
+    }
+
+    // Mark a section as reached by an occlusion pass; false if this pass already reached it
+    boolean visitSection(int section, int frame) {
+        if (sectionVisitFrames[section] == frame) {
+            return false;
+        }
+        sectionVisitFrames[section] = frame;
+        return true;
+    }
+
+    // Give up the section's mesh: shared meshes go back to the cache, private ones are deleted
+    private void releaseSectionMesh(int section) {
+        if (sectionMeshes[section] == null) {
+            return;
+        }
+        MeshCache meshCache = getMeshCache();
+        if (sectionMeshKeys[section] != null && meshCache != null) {
+            meshCache.release(sectionMeshKeys[section]);
+        } else if (sectionMeshKeys[section] == null) {
+            sectionMeshes[section].cleanup();
+        }
+        sectionMeshes[section] = null;
+        sectionMeshKeys[section] = null;
+    }
+
+    private MeshCache getMeshCache() {
+        MeshingService meshingService = world != null ? world.getMeshingService() : null;
+        return meshingService != null ? meshingService.getMeshCache() : null;
+    }
+
+    // Drop pending builds and release the GPU meshes (used when the chunk is unloaded)
+    public void releaseMesh() {
+        dirtySections = 0;
+        for (int section = 0; section < SECTION_COUNT; section++) {
+            nextMeshVersion(section);
+            releaseSectionMesh(section);
+        }
+    }
+
+    // GPU mesh of one section, or null if it has not been built yet
+    public ChunkMesh getSectionMesh(int section) {
+        return sectionMeshes[section];
+    }
+
+    public static int getChunkSize() {
+        return CHUNK_SIZE;
+    }
+
+    // Rebuild every section mesh with the current voxel data
+    public void generateMesh() {
+        updateMesh();
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    // Get the chunk containing local voxel coordinates that may lie outside this chunk.
+    // Returns this chunk for in-bounds coordinates and null if the neighbor is not loaded.
+    public Chunk getNeighboringChunk(int nx, int ny, int nz) {
+        if (((nx | ny | nz) & ~CHUNK_MASK) == 0) {
+            return this;
+        }
+        if (world == null) {
+            return null;
+        }
+        return world.getChunk(chunkX + (nx >> CHUNK_SHIFT), chunkY + (ny >> CHUNK_SHIFT), chunkZ + (nz >> CHUNK_SHIFT));
+    }
+}
@@ -0,0 +1,229 @@
+package ChunkUtilities;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+
+// Shared GPU storage for every chunk mesh: one vertex buffer behind a single VAO, so the whole terrain draws
+// with one bind (see ChunkRenderer). A ChunkMesh is a range of that buffer; indices are not stored per mesh,
+// the VAO's element buffer is the QuadIndexBuffer every mesh shares.
+// Ranges come from a free-list arena (GpuArena):
+//   - a rebuilt mesh that fits its old range is written in place and gives back the unused tail,
+//   - when the arena is full the buffer grows by a GPU-side copy, so live ranges keep their offsets,
+//   - defragment() moves a few of the highest meshes into lower holes each frame, keeping free space in one block.
+// Geometry reaches the buffers through an UploadRing (mapped staging memory plus a GPU-side copy).
+// GL thread only.
+public class ChunkBuffers {
+    private static final int INITIAL_VERTICES = 1 << 20; // 8 MB of vertices
+    private static final double DEFRAGMENT_THRESHOLD = 0.25; // Start moving meshes above this fragmentation
+    private static final int DEFRAGMENT_CANDIDATES = 8; // Highest meshes tried per frame
+    private static final int UPLOAD_RING_BYTES = 16 << 20; // Two frames of the default upload budget
+
+    private static int vaoID;
+    private static int vboID;
+    private static GpuArena vertexArena; // In vertices
+    private static QuadIndexBuffer quadIndices;
+    private static UploadRing uploadRing;
+
+    // Live meshes by the start of their ranges (defragment() walks them from the top)
+    private static final TreeMap<Integer, ChunkMesh> meshesByVertex = new TreeMap<>();
+
+    // Create the shared VAO and buffers (once, on the GL thread, before any mesh is uploaded)
+    public static void init() {
+        if (vaoID != 0) {
+            return;
+        }
+        vaoID = GL30.glGenVertexArrays();
+        vboID = createBuffer((long) INITIAL_VERTICES * MeshBuilder.VERTEX_BYTES);
+        vertexArena = new GpuArena(INITIAL_VERTICES);
+        quadIndices = new QuadIndexBuffer();
+        uploadRing = new UploadRing(UPLOAD_RING_BYTES);
+        attachBuffers();
+        publishStats();
+    }
+
+    private static int createBuffer(long bytes) {
+        int bufferID = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, bufferID); // Not through the VAO's bindings
+        GL15.glBufferData(GL31.GL_COPY_WRITE_BUFFER, bytes, GL15.GL_STATIC_DRAW);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+        return bufferID;
+    }
+
+    // Point the VAO at the current buffers: one integer attribute of two packed words per vertex
+    private static void attachBuffers() {
+        GL30.glBindVertexArray(vaoID);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboID);
+        GL30.glVertexAttribIPointer(0, 2, GL11.GL_UNSIGNED_INT, MeshBuilder.VERTEX_BYTES, 0);
+        GL20.glEnableVertexAttribArray(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, quadIndices.getBufferID());
+        GL30.glBindVertexArray(0);
+    }
+
+    // Give a mesh a range for its vertices and copy them in. The old range is reused when the new geometry
+    // fits it; otherwise it is released and a new one allocated.
+    static void upload(ChunkMesh mesh, MeshData data) {
+        int vertices = data.getVertexCount();
+        boolean live = meshesByVertex.get(mesh.getFirstVertex()) == mesh;
+        quadIndices.ensureCapacity(data.getQuadCount());
+
+        if (live && vertices <= mesh.getVertexCount()) {
+            vertexArena.shrink(mesh.getFirstVertex(), mesh.getVertexCount(), vertices);
+            mesh.setRange(mesh.getFirstVertex(), vertices);
+            MeshStats.recordArenaReuse();
+        } else {
+            free(mesh);
+            int firstVertex = vertexArena.allocate(vertices);
+            if (firstVertex < 0) {
+                vboID = growBuffer(vboID, vertexArena, vertices, MeshBuilder.VERTEX_BYTES);
+                attachBuffers();
+                firstVertex = vertexArena.allocate(vertices);
+            }
+            mesh.setRange(firstVertex, vertices);
+            meshesByVertex.put(firstVertex, mesh);
+        }
+
+        write(vboID, (long) mesh.getFirstVertex() * MeshBuilder.VERTEX_BYTES, data.getVertexData());
+        publishStats();
+    }
+
+    private static void write(int bufferID, long offset, ByteBuffer bytes) {
+        if (uploadRing.copyTo(bufferID, offset, bytes)) {
+            return;
+        }
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, bufferID); // Larger than the whole ring
+        GL15.glBufferSubData(GL31.GL_COPY_WRITE_BUFFER, offset, bytes);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+    }
+
+    // Fence the uploads queued this frame, so the ring can tell when their staging space is free again
+    public static void endUploads() {
+        if (uploadRing != null) {
+            uploadRing.fence();
+        }
+    }
+
+    // Release a mesh's range back to the arena (safe for meshes that hold none)
+    static void free(ChunkMesh mesh) {
+        if (meshesByVertex.get(mesh.getFirstVertex()) != mesh) {
+            return;
+        }
+        meshesByVertex.remove(mesh.getFirstVertex());
+        vertexArena.free(mesh.getFirstVertex(), mesh.getVertexCount());
+        mesh.setRange(0, 0);
+        publishStats();
+    }
+
+    // Replace a full buffer with a larger one holding the same bytes at the same offsets (a single GPU copy).
+    // The caller re-attaches the VAO.
+    private static int growBuffer(int oldID, GpuArena arena, int needed, int unitBytes) {
+        int capacity = arena.getCapacity();
+        int highWater = arena.getHighWaterMark();
+        while (capacity - highWater < needed) {
+            capacity <<= 1;
+        }
+        int newID = createBuffer((long) capacity * unitBytes);
+        copy(oldID, newID, 0L, 0L, (long) highWater * unitBytes);
+        GL15.glDeleteBuffers(oldID);
+        arena.grow(capacity);
+        MeshStats.recordArenaGrowth();
+        MeshStats.log(LogLevel.DEBUG, "Chunk buffer grown to " + capacity + " units of " + unitBytes + " bytes ("
+                + arena.getUsed() + " in use)");
+        return newID;
+    }
+
+    private static void copy(int source, int target, long sourceOffset, long targetOffset, long size) {
+        if (size == 0) {
+            return;
+        }
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, source);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, target);
+        GL31.glCopyBufferSubData(GL31.GL_COPY_READ_BUFFER, GL31.GL_COPY_WRITE_BUFFER, sourceOffset, targetOffset, size);
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+    }
+
+    // Incremental compaction, called once per frame: while the arena's free space is fragmented, move up to
+    // maxBytes of the highest meshes into free blocks further down. The copies are ordered with the frame's
+    // draws by GL, so a mesh is never drawn from a half-moved range.
+    public static void defragment(long maxBytes) {
+        if (vaoID == 0 || vertexArena.getFreeBlockCount() <= 1 || vertexArena.getFragmentation() < DEFRAGMENT_THRESHOLD) {
+            return;
+        }
+        long moved = 0L;
+        int tried = 0;
+        Map.Entry<Integer, ChunkMesh> entry = meshesByVertex.lastEntry();
+        while (entry != null && tried < DEFRAGMENT_CANDIDATES && moved < maxBytes) {
+            ChunkMesh mesh = entry.getValue();
+            int offset = entry.getKey();
+            int size = mesh.getVertexCount();
+            Map.Entry<Integer, ChunkMesh> next = meshesByVertex.lowerEntry(offset);
+
+            int target = vertexArena.allocateBelow(size, offset);
+            if (target >= 0) {
+                // Target and source cannot overlap: the free block ends at or before the mesh starts
+                copy(vboID, vboID, (long) offset * MeshBuilder.VERTEX_BYTES, (long) target * MeshBuilder.VERTEX_BYTES,
+                        (long) size * MeshBuilder.VERTEX_BYTES);
+                vertexArena.free(offset, size);
+                meshesByVertex.remove(offset);
+                meshesByVertex.put(target, mesh);
+                mesh.setRange(target, size);
+                moved += (long) size * MeshBuilder.VERTEX_BYTES;
+                MeshStats.recordArenaMove();
+            }
+            tried++;
+            entry = next;
+        }
+        publishStats();
+    }
+
+    private static void publishStats() {
+        MeshStats.recordArenaState(getCapacityBytes(), getLiveBytes(), vertexArena.getFreeBlockCount(), getFragmentation());
+    }
+
+    // VAO with the shared vertex buffer and quad index buffer attached
+    public static int getVaoID() {
+        return vaoID;
+    }
+
+    public static int getMeshCount() {
+        return meshesByVertex.size();
+    }
+
+    // GPU memory reserved for chunk geometry (the shared quad indices included)
+    public static long getCapacityBytes() {
+        return (long) vertexArena.getCapacity() * MeshBuilder.VERTEX_BYTES + quadIndices.getByteSize();
+    }
+
+    // GPU memory holding live chunk geometry (the shared quad indices included)
+    public static long getLiveBytes() {
+        return (long) vertexArena.getUsed() * MeshBuilder.VERTEX_BYTES + quadIndices.getByteSize();
+    }
+
+    // Share of the free vertex space that is not in the largest free block
+    public static double getFragmentation() {
+        return vertexArena.getFragmentation();
+    }
+
+    // Delete the shared buffers (after every mesh has been released)
+    public static void cleanup() {
+        meshesByVertex.clear();
+        if (vaoID != 0) {
+            uploadRing.cleanup();
+            uploadRing = null;
+            quadIndices.cleanup();
+            quadIndices = null;
+            GL15.glDeleteBuffers(vboID);
+            GL30.glDeleteVertexArrays(vaoID);
+        }
+        vaoID = 0;
+        vboID = 0;
+    }
+}
@@ -0,0 +1,5 @@
+package ChunkUtilities;
+
+// Open-addressing hash map from a packed chunk position (see World.packKey) to a Chunk
+public class ChunkMap extends LongObjectMap<Chunk> {
+}
@@ -0,0 +1,568 @@
+package ChunkUtilities;
+
+import java.util.Arrays;
+
+import Block_Entities.BlockRegistry;
+
+// CPU side of chunk meshing: turns one section of an immutable ChunkSnapshot into MeshData.
+// Each section gets its own mesh so an edit only remeshes the sections it touches.
+// Touches no OpenGL state, so it runs on the MeshingService worker threads; ChunkMesh uploads the result.
+public class ChunkMesher {
+    // Define chunk size
+    private static final int CHUNK_SIZE = Chunk.CHUNK_SIZE; // Static chunk size (a power of two)
+
+    private static volatile MeshingMode meshingMode = MeshingMode.BITMASK; // Strategy used for new builds
+
+    private static final long COLUMN_MASK = CHUNK_SIZE == 64 ? -1L : (1L << CHUNK_SIZE) - 1; // Bits of one z-column
+
+    // Opacity columns of the bitmask passes, reused per thread like the MeshBuilder
+    private static final ThreadLocal<long[]> OPACITY_COLUMNS = ThreadLocal.withInitial(() -> new long[CHUNK_SIZE * CHUNK_SIZE]);
+
+    // Slice mask and coordinate arrays of the greedy mesher, reused per thread
+    private static final ThreadLocal<GreedyScratch> GREEDY_SCRATCH = ThreadLocal.withInitial(GreedyScratch::new);
+
+    private static final class GreedyScratch {
+        final int[] mask = new int[CHUNK_SIZE * CHUNK_SIZE]; // blockID + 1 of each visible face in the slice, 0 = none
+        final int[] pos = new int[3];
+        final int[] size = new int[3];
+        final int[] min = new int[3];
+        final int[] max = new int[3];
+    }
+
+    // Cell grid and surface histogram of the LOD mesher, reused per thread
+    private static final ThreadLocal<LodScratch> LOD_SCRATCH = ThreadLocal.withInitial(LodScratch::new);
+
+    private static final class LodScratch {
+        // Sized for the largest level: level 1 has the most cells, MAX_LOD_LEVEL the largest cells
+        final int[] grid = new int[((Chunk.SECTION_HEIGHT >> 1) + 2) * (CHUNK_SIZE >> 1) * (CHUNK_SIZE >> 1)];
+        final int[] surfaceIDs = new int[1 << (2 * Chunk.MAX_LOD_LEVEL)];
+        final int[] surfaceCounts = new int[1 << (2 * Chunk.MAX_LOD_LEVEL)];
+    }
+
+    // Face directions in BlockRegistry face-slot order: {dx, dy, dz} (the opposite face of slot f is f ^ 1)
+    static final int[][] FACE_DIRECTIONS = {
+        {0, 0, 1}, // Front
+        {0, 0, -1}, // Back
+        {-1, 0, 0}, // Left
+        {1, 0, 0}, // Right
+        {0, -1, 0}, // Bottom
+        {0, 1, 0} // Top
+    };
+
+    // Build the geometry of one section of a snapshot with the current meshing mode
+    public static MeshData build(ChunkSnapshot chunk, int section) {
+        long start = System.nanoTime();
+        MeshBuilder builder = MeshBuilder.forCurrentThread(); // Reused per thread, no per-face allocation
+
+        MeshingMode mode = meshingMode;
+        int voxelsScanned;
+        if (chunk.getLodLevel() > 0) {
+            voxelsScanned = buildLodMesh(builder, chunk, section, chunk.getLodLevel()); // Distant chunk
+        } else if (mode == MeshingMode.GREEDY) {
+            voxelsScanned = buildGreedyMesh(builder, chunk, section);
+        } else if (mode == MeshingMode.BITMASK) {
+            voxelsScanned = buildBitmaskMesh(builder, chunk, section);
+        } else {
+            voxelsScanned = buildPerFaceMesh(builder, chunk, section);
+        }
+
+        long visibility = SectionVisibility.compute(chunk, section); // For occlusion culling
+
+        long buildNanos = System.nanoTime() - start;
+        MeshStats.recordBuild(buildNanos, builder.getQuadCount(), voxelsScanned);
+        MeshData data = new MeshData(chunk.getChunk(), section, chunk.getVersion(section), builder, buildNanos);
+        data.setVisibility(visibility);
+        return data;
+    }
+
+    // Select the meshing strategy used by subsequent builds
+    public static void setMeshingMode(MeshingMode mode) {
+        meshingMode = mode;
+    }
+
+    public static MeshingMode getMeshingMode() {
+        return meshingMode;
+    }
+
+    // One quad per exposed voxel face. Returns the number of voxels visited.
+    private static int buildPerFaceMesh(MeshBuilder builder, ChunkSnapshot chunk, int section) {
+        int firstY = section << Chunk.SECTION_SHIFT;
+        if (chunk.isSectionUniform(section)) {
+            int blockID = chunk.getSectionUniformBlockID(section);
+            // Uniform air (or any non-solid block) has no faces at all
+            if (BlockRegistry.isSolid(blockID)) {
+                return addUniformSectionFaces(builder, chunk, firstY, blockID);
+            }
+            return 0;
+        }
+
+        // Loop through each voxel of the section in storage order (y, x, z) so the scan is linear
+        int index = Chunk.getIndex(0, firstY, 0);
+        for (int y = firstY; y < firstY + Chunk.SECTION_HEIGHT; y++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                for (int z = 0; z < CHUNK_SIZE; z++, index++) {
+                    int blockID = chunk.getBlockIDAt(index); // Get the block at this position
+                    // If the block is solid, add its faces to the mesh
+                    if (BlockRegistry.isSolid(blockID)) {
+                        addVoxelFaces(builder, chunk, x, y, z, blockID);
+                    }
+                }
+            }
+        }
+        return Chunk.SECTION_VOLUME;
+    }
+
+    // Same output as buildPerFaceMesh, but face visibility is computed on opacity bitmasks:
+    // one long per (x, y) column with bit z set when the voxel is solid. The visible faces of a whole
+    // column in one direction are its own bits AND-NOT the neighboring column (or the column shifted by one along z).
+    private static int buildBitmaskMesh(MeshBuilder builder, ChunkSnapshot chunk, int section) {
+        long[] opaque = OPACITY_COLUMNS.get(); // (y * CHUNK_SIZE + x) -> solid bits along z
+        // The section plus the sections above and below, which decide its top and bottom faces
+        // (only those columns are read, so what earlier builds left in the others does not matter)
+        int voxelsScanned = buildOpacityColumns(chunk, opaque, Math.max(section - 1, 0), Math.min(section + 1, Chunk.SECTION_COUNT - 1));
+
+        long[] frontBorder = chunk.getNeighborBorder(BlockRegistry.FACE_FRONT);
+        long[] backBorder = chunk.getNeighborBorder(BlockRegistry.FACE_BACK);
+        long[] leftBorder = chunk.getNeighborBorder(BlockRegistry.FACE_LEFT);
+        long[] rightBorder = chunk.getNeighborBorder(BlockRegistry.FACE_RIGHT);
+        long[] bottomBorder = chunk.getNeighborBorder(BlockRegistry.FACE_BOTTOM);
+        long[] topBorder = chunk.getNeighborBorder(BlockRegistry.FACE_TOP);
+
+        int lastRow = CHUNK_SIZE - 1;
+        int firstY = section << Chunk.SECTION_SHIFT;
+        for (int y = firstY; y < firstY + Chunk.SECTION_HEIGHT; y++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                int column = y * CHUNK_SIZE + x;
+                long solid = opaque[column];
+                if (solid == 0) {
+                    continue;
+                }
+
+                // At the chunk border the neighbor's cached border slice supplies the adjacent column
+                // (an unloaded neighbor counts as empty, so those faces stay visible)
+                long front = solid & ~((solid >>> 1) | ((frontBorder[y] >>> x) & 1L) << lastRow); // Neighbor at z + 1
+                long back = solid & ~(((solid << 1) & COLUMN_MASK) | ((backBorder[y] >>> x) & 1L)); // Neighbor at z - 1
+                long left = solid & ~(x > 0 ? opaque[column - 1] : leftBorder[y]);
+                long right = solid & ~(x < lastRow ? opaque[column + 1] : rightBorder[y]);
+                long bottom = solid & ~(y > 0 ? opaque[column - CHUNK_SIZE] : bottomBorder[x]);
+                long top = solid & ~(y < lastRow ? opaque[column + CHUNK_SIZE] : topBorder[x]);
+
+                // Visit voxels with at least one visible face in z order, emitting faces in the per-face order
+                long any = front | back | left | right | bottom | top;
+                int index = Chunk.getIndex(x, y, 0);
+                while (any != 0) {
+                    int z = Long.numberOfTrailingZeros(any);
+                    any &= any - 1;
+                    long bit = 1L << z;
+                    int blockID = chunk.getBlockIDAt(index + z);
+                    if ((front & bit) != 0) {
+                        addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_FRONT), 0, 0, 1);
+                    }
+                    if ((back & bit) != 0) {
+                        addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_BACK), 0, 0, -1);
+                    }
+                    if ((left & bit) != 0) {
+                        addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_LEFT), -1, 0, 0);
+                    }
+                    if ((right & bit) != 0) {
+                        addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_RIGHT), 1, 0, 0);
+                    }
+                    if ((bottom & bit) != 0) {
+                        addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_BOTTOM), 0, -1, 0);
+                    }
+                    if ((top & bit) != 0) {
+                        addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_TOP), 0, 1, 0);
+                    }
+                }
+            }
+        }
+        return voxelsScanned;
+    }
+
+    // Number of visible faces in a whole chunk snapshot, computed on opacity bitmasks without emitting geometry
+    // (the face-visibility pass of the BITMASK mesher on its own)
+    public static int countVisibleFaces(ChunkSnapshot chunk) {
+        long[] opaque = OPACITY_COLUMNS.get();
+        buildOpacityColumns(chunk, opaque, 0, Chunk.SECTION_COUNT - 1);
+        long[] frontBorder = chunk.getNeighborBorder(BlockRegistry.FACE_FRONT);
+        long[] backBorder = chunk.getNeighborBorder(BlockRegistry.FACE_BACK);
+        long[] leftBorder = chunk.getNeighborBorder(BlockRegistry.FACE_LEFT);
+        long[] rightBorder = chunk.getNeighborBorder(BlockRegistry.FACE_RIGHT);
+        long[] bottomBorder = chunk.getNeighborBorder(BlockRegistry.FACE_BOTTOM);
+        long[] topBorder = chunk.getNeighborBorder(BlockRegistry.FACE_TOP);
+
+        int lastRow = CHUNK_SIZE - 1;
+        int faces = 0;
+        for (int y = 0; y < CHUNK_SIZE; y++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                int column = y * CHUNK_SIZE + x;
+                long solid = opaque[column];
+                if (solid == 0) {
+                    continue;
+                }
+                faces += Long.bitCount(solid & ~((solid >>> 1) | ((frontBorder[y] >>> x) & 1L) << lastRow));
+                faces += Long.bitCount(solid & ~(((solid << 1) & COLUMN_MASK) | ((backBorder[y] >>> x) & 1L)));
+                faces += Long.bitCount(solid & ~(x > 0 ? opaque[column - 1] : leftBorder[y]));
+                faces += Long.bitCount(solid & ~(x < lastRow ? opaque[column + 1] : rightBorder[y]));
+                faces += Long.bitCount(solid & ~(y > 0 ? opaque[column - CHUNK_SIZE] : bottomBorder[x]));
+                faces += Long.bitCount(solid & ~(y < lastRow ? opaque[column + CHUNK_SIZE] : topBorder[x]));
+            }
+        }
+        return faces;
+    }
+
+    // Fill one opacity bit per voxel, one long per (x, y) column, for the given range of sections
+    // (uniform sections are filled without reading voxels). Returns the number of voxels read.
+    static int buildOpacityColumns(ChunkSnapshot chunk, long[] opaque, int firstSection, int lastSection) {
+        int voxelsRead = 0;
+        for (int section = firstSection; section <= lastSection; section++) {
+            int firstY = section << Chunk.SECTION_SHIFT;
+            int firstColumn = firstY * CHUNK_SIZE;
+            int lastColumn = firstColumn + Chunk.SECTION_HEIGHT * CHUNK_SIZE;
+            if (chunk.isSectionUniform(section)) {
+                long fill = BlockRegistry.isSolid(chunk.getSectionUniformBlockID(section)) ? COLUMN_MASK : 0L;
+                Arrays.fill(opaque, firstColumn, lastColumn, fill);
+                continue;
+            }
+
+            // Storage order is (y, x, z), so each column is a contiguous run of CHUNK_SIZE cells
+            voxelsRead += Chunk.SECTION_VOLUME;
+            int index = Chunk.getIndex(0, firstY, 0);
+            for (int column = firstColumn; column < lastColumn; column++) {
+                long bits = 0L;
+                for (int z = 0; z < CHUNK_SIZE; z++, index++) {
+                    if (BlockRegistry.isSolid(chunk.getBlockIDAt(index))) {
+                        bits |= 1L << z;
+                    }
+                }
+                opaque[column] = bits;
+            }
+        }
+        return voxelsRead;
+    }
+
+    // Merge coplanar visible faces of the same block into maximal rectangles, one slice at a time
+    private static int buildGreedyMesh(MeshBuilder builder, ChunkSnapshot chunk, int section) {
+        GreedyScratch scratch = GREEDY_SCRATCH.get();
+        int[] mask = scratch.mask; // Only the cells of the current slice are read, all written first
+        int[] pos = scratch.pos;
+        int[] size = scratch.size;
+
+        // Voxel range of the section on each axis; quads never cross a section boundary
+        int[] min = scratch.min;
+        int[] max = scratch.max;
+        min[0] = 0;
+        min[1] = section << Chunk.SECTION_SHIFT;
+        min[2] = 0;
+        max[0] = CHUNK_SIZE;
+        max[1] = min[1] + Chunk.SECTION_HEIGHT;
+        max[2] = CHUNK_SIZE;
+
+        for (int face = 0; face < BlockRegistry.FACE_COUNT; face++) {
+            int[] dir = FACE_DIRECTIONS[face];
+            int normalAxis = dir[0] != 0 ? 0 : (dir[1] != 0 ? 1 : 2);
+            int uAxis = (normalAxis + 1) % 3; // The two axes spanning the slice
+            int vAxis = (normalAxis + 2) % 3;
+
+            for (int slice = min[normalAxis]; slice < max[normalAxis]; slice++) {
+                // Collect the visible faces of this slice
+                boolean any = false;
+                pos[normalAxis] = slice;
+                for (int u = min[uAxis]; u < max[uAxis]; u++) {
+                    pos[uAxis] = u;
+                    for (int v = min[vAxis]; v < max[vAxis]; v++) {
+                        pos[vAxis] = v;
+                        int blockID = chunk.getBlockID(pos[0], pos[1], pos[2]);
+                        boolean visible = BlockRegistry.isSolid(blockID)
+                                && isFaceVisible(chunk, pos[0], pos[1], pos[2], dir[0], dir[1], dir[2]);
+                        mask[u * CHUNK_SIZE + v] = visible ? blockID + 1 : 0;
+                        any |= visible;
+                    }
+                }
+                if (!any) {
+                    continue;
+                }
+
+                // Grow each unvisited face into the largest rectangle of identical faces
+                for (int u = min[uAxis]; u < max[uAxis]; u++) {
+                    for (int v = min[vAxis]; v < max[vAxis]; ) {
+                        int key = mask[u * CHUNK_SIZE + v];
+                        if (key == 0) {
+                            v++;
+                            continue;
+                        }
+                        int width = 1; // Extent along v
+                        while (v + width < max[vAxis] && mask[u * CHUNK_SIZE + v + width] == key) {
+                            width++;
+                        }
+                        int height = 1; // Extent along u
+                        extend:
+                        while (u + height < max[uAxis]) {
+                            int row = (u + height) * CHUNK_SIZE;
+                            for (int k = 0; k < width; k++) {
+                                if (mask[row + v + k] != key) {
+                                    break extend;
+                                }
+                            }
+                            height++;
+                        }
+                        for (int du = 0; du < height; du++) {
+                            for (int k = 0; k < width; k++) {
+                                mask[(u + du) * CHUNK_SIZE + v + k] = 0;
+                            }
+                        }
+
+                        pos[uAxis] = u;
+                        pos[vAxis] = v;
+                        size[normalAxis] = 1;
+                        size[uAxis] = height;
+                        size[vAxis] = width;
+                        int textureIndex = BlockRegistry.getFaceTexture(key - 1, face);
+                        addQuad(builder, textureIndex, dir[0], dir[1], dir[2],
+                                pos[0], pos[1], pos[2], size[0], size[1], size[2]);
+                        v += width;
+                    }
+                }
+            }
+        }
+        return BlockRegistry.FACE_COUNT * Chunk.SECTION_VOLUME; // Every voxel is read once per direction
+    }
+
+    // Reduced-resolution mesh for a distant chunk: the section is downsampled into cells of 2^level voxels per side
+    // and each exposed cell face becomes one quad. Returns the number of voxels visited.
+    private static int buildLodMesh(MeshBuilder builder, ChunkSnapshot chunk, int section, int level) {
+        if (chunk.isSectionUniform(section) && !BlockRegistry.isSolid(chunk.getSectionUniformBlockID(section))) {
+            return 0; // Empty section: nothing to downsample
+        }
+        int scale = 1 << level; // Voxels per cell side
+        int cells = CHUNK_SIZE >> level; // Cells per chunk side
+        int rows = Chunk.SECTION_HEIGHT >> level; // Cell rows in the section
+        int firstRow = (section << Chunk.SECTION_SHIFT) >> level;
+
+        // Downsampled block IDs of the section's cell rows plus the row below and above (0 = empty).
+        // Rows outside the chunk are neither written nor read, so what earlier builds left there does not matter.
+        LodScratch scratch = LOD_SCRATCH.get();
+        int[] grid = scratch.grid;
+        int[] surfaceIDs = scratch.surfaceIDs; // Per-cell histogram of surface blocks: at most one per column
+        int[] surfaceCounts = scratch.surfaceCounts;
+        int visited = 0;
+        for (int r = -1; r <= rows; r++) {
+            int row = firstRow + r;
+            if (row < 0 || row >= cells) {
+                continue; // Outside the chunk: resolved through the neighbor's border slice
+            }
+            for (int cx = 0; cx < cells; cx++) {
+                for (int cz = 0; cz < cells; cz++) {
+                    grid[((r + 1) * cells + cx) * cells + cz] = downsampleCell(chunk, cx << level, row << level, cz << level, scale,
+                            surfaceIDs, surfaceCounts);
+                }
+            }
+            visited += cells * cells * scale * scale * scale;
+        }
+
+        for (int r = 0; r < rows; r++) {
+            int row = firstRow + r;
+            for (int cx = 0; cx < cells; cx++) {
+                for (int cz = 0; cz < cells; cz++) {
+                    int blockID = grid[((r + 1) * cells + cx) * cells + cz];
+                    if (blockID == 0) {
+                        continue;
+                    }
+                    for (int face = 0; face < BlockRegistry.FACE_COUNT; face++) {
+                        int[] dir = FACE_DIRECTIONS[face];
+                        int nx = cx + dir[0];
+                        int nRow = row + dir[1];
+                        int nz = cz + dir[2];
+                        boolean visible;
+                        if (((nx | nRow | nz) & ~(cells - 1)) != 0) {
+                            visible = !isBorderCovered(chunk, face, cx, row, cz);
+                        } else {
+                            visible = grid[((r + dir[1] + 1) * cells + nx) * cells + nz] == 0;
+                        }
+                        if (visible) {
+                            addQuad(builder, BlockRegistry.getFaceTexture(blockID, face), dir[0], dir[1], dir[2],
+                                    cx << level, row << level, cz << level, scale, scale, scale);
+                        }
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    // Majority rule of the LOD mesher: a cell of scale^3 voxels is solid if at least half of them are
+    // (Chunk.getCoarseBorderSlice applies the same rule for neighbors)
+    static boolean isMajoritySolid(int solidVoxels, int scale) {
+        return solidVoxels * 2 >= scale * scale * scale;
+    }
+
+    // Block a cell of scale^3 voxels stands for, or 0 if it is not solid by the majority rule.
+    // The block is the one seen most from above (the highest solid voxel of each column), so grass stays on top.
+    // ids/counts hold the distinct surface blocks of the cell (scale^2 entries: at most one per column).
+    private static int downsampleCell(ChunkSnapshot chunk, int x0, int y0, int z0, int scale, int[] ids, int[] counts) {
+        int section = y0 >>> Chunk.SECTION_SHIFT; // A cell never spans two sections
+        if (chunk.isSectionUniform(section)) {
+            int blockID = chunk.getSectionUniformBlockID(section);
+            return BlockRegistry.isSolid(blockID) ? blockID : 0;
+        }
+
+        int distinct = 0;
+        int solid = 0;
+        for (int x = x0; x < x0 + scale; x++) {
+            for (int z = z0; z < z0 + scale; z++) {
+                boolean surface = true; // Still looking for the column's highest solid voxel
+                for (int y = y0 + scale - 1; y >= y0; y--) {
+                    int blockID = chunk.getBlockIDAt(Chunk.getIndex(x, y, z));
+                    if (BlockRegistry.isSolid(blockID)) {
+                        solid++;
+                        if (surface) {
+                            int i = 0;
+                            while (i < distinct && ids[i] != blockID) {
+                                i++;
+                            }
+                            if (i == distinct) {
+                                ids[distinct] = blockID;
+                                counts[distinct++] = 0;
+                            }
+                            counts[i]++;
+                            surface = false;
+                        }
+                    }
+                }
+            }
+        }
+        if (!isMajoritySolid(solid, scale)) {
+            return 0;
+        }
+        int best = 0;
+        for (int i = 1; i < distinct; i++) {
+            if (counts[i] > counts[best] || (counts[i] == counts[best] && ids[i] < ids[best])) {
+                best = i; // Ties go to the lower block ID
+            }
+        }
+        return ids[best];
+    }
+
+    // Whether the neighbor's cell touching a cell face on the chunk border is solid, by the neighbor's coarse
+    // border slice (cell coordinates). The same majority rule decides both sides of the seam, so one of the
+    // two chunks always draws the face between a solid and an empty cell.
+    private static boolean isBorderCovered(ChunkSnapshot chunk, int face, int cx, int row, int cz) {
+        long[] border = chunk.getNeighborBorder(face);
+        if (face == BlockRegistry.FACE_FRONT || face == BlockRegistry.FACE_BACK) {
+            return ((border[row] >>> cx) & 1L) != 0;
+        } else if (face == BlockRegistry.FACE_LEFT || face == BlockRegistry.FACE_RIGHT) {
+            return ((border[row] >>> cz) & 1L) != 0;
+        }
+        return ((border[cx] >>> cz) & 1L) != 0;
+    }
+
+    // A uniform solid section can only expose faces on its outer shell, so only the shell is visited.
+    // Returns the number of voxels visited.
+    private static int addUniformSectionFaces(MeshBuilder builder, ChunkSnapshot chunk, int firstY, int blockID) {
+        int lastY = firstY + Chunk.SECTION_HEIGHT - 1;
+        int visited = 0;
+        for (int y = firstY; y <= lastY; y++) {
+            boolean capRow = y == firstY || y == lastY; // Bottom and top rows border other sections
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                if (capRow || x == 0 || x == CHUNK_SIZE - 1) {
+                    for (int z = 0; z < CHUNK_SIZE; z++) {
+                        addVoxelFaces(builder, chunk, x, y, z, blockID);
+                    }
+                    visited += CHUNK_SIZE;
+                } else {
+                    addVoxelFaces(builder, chunk, x, y, 0, blockID);
+                    addVoxelFaces(builder, chunk, x, y, CHUNK_SIZE - 1, blockID);
+                    visited += 2;
+                }
+            }
+        }
+        return visited;
+    }
+
+    // Adds the faces of a voxel to the mesh if needed
+    private static void addVoxelFaces(MeshBuilder builder, ChunkSnapshot chunk, int x, int y, int z, int blockID) {
+        // Add a face if the adjacent voxel is empty or out of chunk bounds
+        if (isFaceVisible(chunk, x, y, z, 0, 0, 1)) { // Front face
+            addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_FRONT), 0, 0, 1);
+        }
+        if (isFaceVisible(chunk, x, y, z, 0, 0, -1)) { // Back face
+            addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_BACK), 0, 0, -1);
+        }
+        if (isFaceVisible(chunk, x, y, z, -1, 0, 0)) { // Left face
+            addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_LEFT), -1, 0, 0);
+        }
+        if (isFaceVisible(chunk, x, y, z, 1, 0, 0)) { // Right face
+            addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_RIGHT), 1, 0, 0);
+        }
+        if (isFaceVisible(chunk, x, y, z, 0, -1, 0)) { // Bottom face
+            addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_BOTTOM), 0, -1, 0);
+        }
+        if (isFaceVisible(chunk, x, y, z, 0, 1, 0)) { // Top face
+            addFaceForDirection(builder, x, y, z, BlockRegistry.getFaceTexture(blockID, BlockRegistry.FACE_TOP), 0, 1, 0);
+        }
+    }
+
+    // A face is visible if the adjacent voxel is not solid; outside the chunk the neighbor's border slice decides
+    private static boolean isFaceVisible(ChunkSnapshot chunk, int x, int y, int z, int dx, int dy, int dz) {
+        int nx = x + dx;
+        int ny = y + dy;
+        int nz = z + dz;
+        if (((nx | ny | nz) & ~Chunk.CHUNK_MASK) != 0) {
+            return !chunk.isNeighborSolid(nx, ny, nz);
+        }
+        return !BlockRegistry.isSolid(chunk.getBlockID(nx, ny, nz));
+    }
+
+    // Adds a face in the specified direction, with texture and position
+    private static void addFaceForDirection(MeshBuilder builder, int x, int y, int z, int textureIndex, int dx, int dy, int dz) {
+        addQuad(builder, textureIndex, dx, dy, dz, x, y, z, 1, 1, 1);
+    }
+
+    // Adds a quad facing (dx, dy, dz) on the box starting at voxel (x, y, z) and spanning (sx, sy, sz) voxels.
+    // The quad's width and height in voxels scale its texture coordinates, so GL_REPEAT tiles the texture once per voxel.
+    private static void addQuad(MeshBuilder builder, int textureIndex, int dx, int dy, int dz,
+                                int x, int y, int z, int sx, int sy, int sz) {
+        // Write the 4 corners straight into the builder, in corner order
+        // 0 = bottom-left, 1 = bottom-right, 2 = top-right, 3 = top-left of the texture
+        int x1 = x + sx;
+        int y1 = y + sy;
+        int z1 = z + sz;
+        if (dz == 1) { // Front face
+            builder.beginQuad(textureIndex, BlockRegistry.FACE_FRONT, sx, sy);
+            builder.vertex(x, y, z1, 0);
+            builder.vertex(x1, y, z1, 1);
+            builder.vertex(x1, y1, z1, 2);
+            builder.vertex(x, y1, z1, 3);
+        } else if (dz == -1) { // Back face
+            builder.beginQuad(textureIndex, BlockRegistry.FACE_BACK, sx, sy);
+            builder.vertex(x, y1, z, 0);
+            builder.vertex(x1, y1, z, 1);
+            builder.vertex(x1, y, z, 2);
+            builder.vertex(x, y, z, 3);
+        } else if (dx == -1) { // Left face
+            builder.beginQuad(textureIndex, BlockRegistry.FACE_LEFT, sy, sz);
+            builder.vertex(x, y, z1, 0);
+            builder.vertex(x, y1, z1, 1);
+            builder.vertex(x, y1, z, 2);
+            builder.vertex(x, y, z, 3);
+        } else if (dx == 1) { // Right face
+            builder.beginQuad(textureIndex, BlockRegistry.FACE_RIGHT, sz, sy);
+            builder.vertex(x1, y1, z, 0);
+            builder.vertex(x1, y1, z1, 1);
+            builder.vertex(x1, y, z1, 2);
+            builder.vertex(x1, y, z, 3);
+        } else if (dy == -1) { // Bottom face
+            builder.beginQuad(textureIndex, BlockRegistry.FACE_BOTTOM, sx, sz);
+            builder.vertex(x, y, z, 0);
+            builder.vertex(x1, y, z, 1);
+            builder.vertex(x1, y, z1, 2);
+            builder.vertex(x, y, z1, 3);
+        } else { // Top face
+            builder.beginQuad(textureIndex, BlockRegistry.FACE_TOP, sz, sx);
+            builder.vertex(x, y1, z, 0);
+            builder.vertex(x, y1, z1, 1);
+            builder.vertex(x1, y1, z1, 2);
+            builder.vertex(x1, y1, z, 3);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ChunkUtilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Loaded chunks grouped into regions of REGION_SIZE^3 chunks, so visibility tests can reject (or accept)
+// hundreds of chunks with one box test. Each region keeps the bounds of the chunks it actually holds,
+// which stay tight for worlds that are only a few chunks tall. Kept up to date by World.
+public class ChunkRegionGrid {
+    public static final int REGION_SHIFT = 3;
+    public static final int REGION_SIZE = 1 << REGION_SHIFT; // Chunks per region axis
+
+    private final LongObjectMap<Region> regions = new LongObjectMap<>(); // Packed region position -> region
+
+    public static final class Region {
+        private final List<Chunk> chunks = new ArrayList<>();
+        // Bounds of the member chunks, in chunk coordinates (max inclusive)
+        private int minX, minY, minZ, maxX, maxY, maxZ;
+        private boolean boundsDirty; // A chunk was removed; recompute before the next use
+
+        public List<Chunk> getChunks() {
+            return chunks;
+        }
+
+        // Region bounds in voxels (max exclusive)
+        public int getMinX() {
+            updateBounds();
+            return minX << Chunk.CHUNK_SHIFT;
+        }
+
+        public int getMinY() {
+            updateBounds();
+            return minY << Chunk.CHUNK_SHIFT;
+        }
+
+        public int getMinZ() {
+            updateBounds();
+            return minZ << Chunk.CHUNK_SHIFT;
+        }
+
+        public int getMaxX() {
+            updateBounds();
+            return (maxX + 1) << Chunk.CHUNK_SHIFT;
+        }
+
+        public int getMaxY() {
+            updateBounds();
+            return (maxY + 1) << Chunk.CHUNK_SHIFT;
+        }
+
+        public int getMaxZ() {
+            updateBounds();
+            return (maxZ + 1) << Chunk.CHUNK_SHIFT;
+        }
+
+        private void add(Chunk chunk) {
+            if (chunks.isEmpty()) {
+                minX = maxX = chunk.getChunkX();
+                minY = maxY = chunk.getChunkY();
+                minZ = maxZ = chunk.getChunkZ();
+            } else if (!boundsDirty) {
+                include(chunk);
+            }
+            chunks.add(chunk);
+        }
+
+        private boolean remove(Chunk chunk) {
+            boundsDirty = true;
+            chunks.remove(chunk);
+            return chunks.isEmpty();
+        }
+
+        private void include(Chunk chunk) {
+            minX = Math.min(minX, chunk.getChunkX());
+            minY = Math.min(minY, chunk.getChunkY());
+            minZ = Math.min(minZ, chunk.getChunkZ());
+            maxX = Math.max(maxX, chunk.getChunkX());
+            maxY = Math.max(maxY, chunk.getChunkY());
+            maxZ = Math.max(maxZ, chunk.getChunkZ());
+        }
+
+        private void updateBounds() {
+            if (!boundsDirty || chunks.isEmpty()) {
+                return;
+            }
+            Chunk first = chunks.get(0);
+            minX = maxX = first.getChunkX();
+            minY = maxY = first.getChunkY();
+            minZ = maxZ = first.getChunkZ();
+            for (Chunk chunk : chunks) {
+                include(chunk);
+            }
+            boundsDirty = false;
+        }
+    }
+
+    public void add(Chunk chunk) {
+        long key = regionKey(chunk);
+        Region region = regions.get(key);
+        if (region == null) {
+            region = new Region();
+            regions.put(key, region);
+        }
+        region.add(chunk);
+    }
+
+    public void remove(Chunk chunk) {
+        long key = regionKey(chunk);
+        Region region = regions.get(key);
+        if (region != null && region.remove(chunk)) {
+            regions.remove(key);
+        }
+    }
+
+    public Iterable<Region> getRegions() {
+        return regions;
+    }
+
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    public void clear() {
+        regions.clear();
+    }
+
+    private static long regionKey(Chunk chunk) {
+        return World.packKey(chunk.getChunkX() >> REGION_SHIFT, chunk.getChunkY() >> REGION_SHIFT, chunk.getChunkZ() >> REGION_SHIFT);
+    }
+}
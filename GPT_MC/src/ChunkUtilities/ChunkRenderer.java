@@ -0,0 +1,232 @@
+package ChunkUtilities;
+
+import java.nio.IntBuffer;
+
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.opengl.GL40;
+import org.lwjgl.opengl.GL43;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+// Draws every queued section mesh from the shared ChunkBuffers with as few GL calls as the context allows.
+// Each frame: begin(), add() every visible mesh, then draw(). Chunk origins are passed to the shader relative to
+// the origin given to begin() (the camera's chunk), in integer voxels, so they stay small anywhere in the world.
+//   Indirect path (GL 4.3, or ARB_multi_draw_indirect + ARB_base_instance): one glMultiDrawElementsIndirect for
+//   the whole terrain. Each command's baseInstance is its draw ID and selects the chunk origin from an instanced
+//   vertex attribute, so per-chunk offsets need no uniform changes.
+//   Fallback (GL 3.3+): one glMultiDrawElementsBaseVertex per chunk, with the origin as a constant attribute value.
+// Every command reads the shared 16-bit QuadIndexBuffer from its start; a mesh of more than
+// QuadIndexBuffer.MAX_QUADS_PER_DRAW quads becomes several commands with advancing base vertices.
+// GL thread only.
+public class ChunkRenderer {
+    private static final int COMMAND_INTS = 5; // count, instanceCount, firstIndex, baseVertex, baseInstance
+    private static final int ORIGIN_INTS = 4; // x, y, z, padding (16-byte stride)
+    private static final int ORIGIN_ATTRIBUTE = 1; // layout(location = 1) in chunk_vertex.glsl
+
+    private final boolean indirect;
+    private int indirectBufferID;
+    private int originBufferID;
+
+    // Per-frame draw list (grown on demand, reused every frame)
+    private IntBuffer commands;
+    private IntBuffer origins;
+    private int drawCount;
+    private int originX, originY, originZ; // This frame's reference point, in voxels
+
+    // Fallback batching: draws of one chunk go into one glMultiDrawElementsBaseVertex
+    private IntBuffer batchCounts;
+    private IntBuffer batchBaseVertices;
+    private PointerBuffer batchOffsets;
+
+    private OcclusionQueries occlusionQueries; // Optional, see setOcclusionQueries()
+
+    private int meshCount;
+    private int drawCallsLastFrame;
+    private int meshesLastFrame;
+
+    public ChunkRenderer() {
+        GLCapabilities caps = GL.getCapabilities();
+        indirect = caps.OpenGL43 || (caps.GL_ARB_multi_draw_indirect && caps.GL_ARB_base_instance);
+        int capacity = 1024;
+        commands = MemoryUtil.memAllocInt(capacity * COMMAND_INTS);
+        origins = MemoryUtil.memAllocInt(capacity * ORIGIN_INTS);
+
+        ChunkBuffers.init();
+        if (indirect) {
+            indirectBufferID = GL15.glGenBuffers();
+            originBufferID = GL15.glGenBuffers();
+            GL30.glBindVertexArray(ChunkBuffers.getVaoID());
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, originBufferID);
+            GL30.glVertexAttribIPointer(ORIGIN_ATTRIBUTE, 3, GL11.GL_INT, ORIGIN_INTS * Integer.BYTES, 0);
+            GL33.glVertexAttribDivisor(ORIGIN_ATTRIBUTE, 1); // One origin per instance = per draw command
+            GL20.glEnableVertexAttribArray(ORIGIN_ATTRIBUTE);
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+            GL30.glBindVertexArray(0);
+        } else {
+            batchCounts = MemoryUtil.memAllocInt(Chunk.SECTION_COUNT);
+            batchBaseVertices = MemoryUtil.memAllocInt(Chunk.SECTION_COUNT);
+            batchOffsets = MemoryUtil.memAllocPointer(Chunk.SECTION_COUNT);
+        }
+        MeshStats.log(LogLevel.INFO, "Chunk renderer: " + (indirect ? "multi-draw indirect" : "multi-draw base vertex fallback"));
+    }
+
+    public boolean isIndirect() {
+        return indirect;
+    }
+
+    // Start a new frame's draw list; chunk positions are sent relative to this point (in voxels)
+    public void begin(int originX, int originY, int originZ) {
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+        drawCount = 0;
+        meshCount = 0;
+    }
+
+    // Skip sections hidden according to GPU occlusion queries (null = draw everything queued)
+    public void setOcclusionQueries(OcclusionQueries occlusionQueries) {
+        this.occlusionQueries = occlusionQueries;
+    }
+
+    // Queue the mesh of a chunk section (meshes of the same chunk should be added one after another)
+    public void add(Chunk chunk, int section, ChunkMesh mesh) {
+        int quads = mesh.getQuadCount();
+        if (quads == 0) {
+            return;
+        }
+        if (occlusionQueries != null && !occlusionQueries.isVisible(chunk, section)) {
+            return;
+        }
+        meshCount++;
+        int baseVertex = mesh.getFirstVertex();
+        while (quads > 0) {
+            int part = Math.min(quads, QuadIndexBuffer.MAX_QUADS_PER_DRAW);
+            addCommand(chunk, part * MeshBuilder.INDICES_PER_QUAD, baseVertex);
+            baseVertex += part * MeshBuilder.VERTICES_PER_QUAD;
+            quads -= part;
+        }
+    }
+
+    private void addCommand(Chunk chunk, int indexCount, int baseVertex) {
+        if (drawCount * COMMAND_INTS == commands.capacity()) {
+            commands = MemoryUtil.memRealloc(commands, commands.capacity() * 2);
+            origins = MemoryUtil.memRealloc(origins, origins.capacity() * 2);
+        }
+        int command = drawCount * COMMAND_INTS;
+        commands.put(command, indexCount);
+        commands.put(command + 1, 1); // One instance
+        commands.put(command + 2, 0); // Quad indices start over for every command
+        commands.put(command + 3, baseVertex);
+        commands.put(command + 4, drawCount); // baseInstance = draw ID, picks this draw's origin
+        int origin = drawCount * ORIGIN_INTS;
+        origins.put(origin, (chunk.getChunkX() << Chunk.CHUNK_SHIFT) - originX);
+        origins.put(origin + 1, (chunk.getChunkY() << Chunk.CHUNK_SHIFT) - originY);
+        origins.put(origin + 2, (chunk.getChunkZ() << Chunk.CHUNK_SHIFT) - originZ);
+        origins.put(origin + 3, 0);
+        drawCount++;
+    }
+
+    // Submit the queued meshes (the chunk shader and texture array must be bound)
+    public void draw() {
+        meshesLastFrame = meshCount;
+        drawCallsLastFrame = 0;
+        if (drawCount == 0) {
+            return;
+        }
+
+        GL11.glEnable(GL11.GL_CULL_FACE); // Back faces of closed terrain are never visible
+        GL11.glCullFace(GL11.GL_BACK);
+        GL30.glBindVertexArray(ChunkBuffers.getVaoID());
+        if (indirect) {
+            drawIndirect();
+        } else {
+            drawBatched();
+        }
+        GL30.glBindVertexArray(0);
+        GL11.glDisable(GL11.GL_CULL_FACE);
+    }
+
+    private void drawIndirect() {
+        // Orphan and refill both buffers: the driver hands out fresh storage instead of waiting for last frame's draw
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, originBufferID);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, origins.limit(drawCount * ORIGIN_INTS).position(0), GL15.GL_STREAM_DRAW);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        origins.clear();
+
+        GL15.glBindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, indirectBufferID);
+        GL15.glBufferData(GL40.GL_DRAW_INDIRECT_BUFFER, commands.limit(drawCount * COMMAND_INTS).position(0), GL15.GL_STREAM_DRAW);
+        commands.clear();
+        GL43.glMultiDrawElementsIndirect(GL11.GL_TRIANGLES, GL11.GL_UNSIGNED_SHORT, 0L, drawCount, 0);
+        GL15.glBindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, 0);
+        drawCallsLastFrame = 1;
+    }
+
+    private void drawBatched() {
+        int start = 0;
+        while (start < drawCount) {
+            // Extend the batch over the following draws of the same chunk
+            int end = start + 1;
+            while (end < drawCount && end - start < batchCounts.capacity() && sameOrigin(start, end)) {
+                end++;
+            }
+            batchCounts.clear();
+            batchBaseVertices.clear();
+            batchOffsets.clear();
+            for (int draw = start; draw < end; draw++) {
+                int command = draw * COMMAND_INTS;
+                batchCounts.put(commands.get(command));
+                batchOffsets.put((long) commands.get(command + 2) * Short.BYTES);
+                batchBaseVertices.put(commands.get(command + 3));
+            }
+            batchCounts.flip();
+            batchBaseVertices.flip();
+            batchOffsets.flip();
+
+            int origin = start * ORIGIN_INTS;
+            GL30.glVertexAttribI3i(ORIGIN_ATTRIBUTE, origins.get(origin), origins.get(origin + 1), origins.get(origin + 2));
+            GL32.glMultiDrawElementsBaseVertex(GL11.GL_TRIANGLES, batchCounts, GL11.GL_UNSIGNED_SHORT, batchOffsets, batchBaseVertices);
+            drawCallsLastFrame++;
+            start = end;
+        }
+    }
+
+    private boolean sameOrigin(int a, int b) {
+        int originA = a * ORIGIN_INTS;
+        int originB = b * ORIGIN_INTS;
+        return origins.get(originA) == origins.get(originB) && origins.get(originA + 1) == origins.get(originB + 1)
+                && origins.get(originA + 2) == origins.get(originB + 2);
+    }
+
+    // Meshes drawn in the last frame
+    public int getMeshesLastFrame() {
+        return meshesLastFrame;
+    }
+
+    // GL draw calls issued for them (1 on the indirect path)
+    public int getDrawCallsLastFrame() {
+        return drawCallsLastFrame;
+    }
+
+    public void cleanup() {
+        if (indirectBufferID != 0) {
+            GL15.glDeleteBuffers(indirectBufferID);
+            GL15.glDeleteBuffers(originBufferID);
+            indirectBufferID = 0;
+            originBufferID = 0;
+        }
+        MemoryUtil.memFree(commands);
+        MemoryUtil.memFree(origins);
+        if (batchCounts != null) {
+            MemoryUtil.memFree(batchCounts);
+            MemoryUtil.memFree(batchBaseVertices);
+            MemoryUtil.memFree(batchOffsets);
+        }
+    }
+}
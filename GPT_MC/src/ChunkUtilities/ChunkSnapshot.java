@@ -0,0 +1,109 @@
+package ChunkUtilities;
+
+import Block_Entities.BlockRegistry;
+
+// Immutable copy of a chunk's block storage, taken on the thread that edits the chunk.
+// Mesher threads read only the snapshot, so edits made while a mesh is building never race with it.
+// It also holds the border slice of each loaded neighbor that faces this chunk, for culling faces at chunk seams.
+// At a reduced level of detail the slices are the neighbors' coarse ones (Chunk.getCoarseBorderSlice), one bit per cell.
+// Only the sections a build may read are copied: the requested ones and the sections directly above and below
+// (one cell row at most, since cells are never taller than a section). Reading any other section fails.
+public class ChunkSnapshot {
+    private static final int SECTION_INDEX_MASK = Chunk.SECTION_VOLUME - 1;
+    private static final long[] EMPTY_BORDER = new long[Chunk.CHUNK_SIZE]; // Unloaded neighbor: nothing solid (any level)
+
+    private final Chunk chunk; // Chunk the snapshot was taken from (its position and current mesh versions)
+    private final int[] versions; // Mesh version of each section at the time of the snapshot
+    private final PaletteStorage[] sections; // Null for sections that were not copied
+    private final long[][] neighborBorders; // Face slot -> neighbor's opacity slice touching that face (see Chunk.getBorderSlice)
+    private final int lodLevel; // Level of detail to mesh at (Chunk.getLodLevel)
+
+    ChunkSnapshot(Chunk chunk, int[] versions, PaletteStorage[] sections, int lodLevel, int sectionMask) {
+        this.chunk = chunk;
+        this.versions = versions;
+        this.lodLevel = lodLevel;
+        this.sections = new PaletteStorage[sections.length];
+        int readable = sectionMask | (sectionMask << 1) | (sectionMask >>> 1);
+        for (int i = 0; i < sections.length; i++) {
+            if ((readable & (1 << i)) != 0) {
+                this.sections[i] = sections[i].copy();
+            }
+        }
+
+        // Border slices are immutable once published, so the snapshot can share them without copying.
+        // A neighbor at another level of detail does not cull: both chunks keep their walls on the seam,
+        // which act as skirts over the cracks between the two resolutions.
+        neighborBorders = new long[BlockRegistry.FACE_COUNT][];
+        for (int face = 0; face < BlockRegistry.FACE_COUNT; face++) {
+            int[] dir = ChunkMesher.FACE_DIRECTIONS[face];
+            Chunk neighbor = chunk.getNeighboringChunk(borderCoord(dir[0]), borderCoord(dir[1]), borderCoord(dir[2]));
+            boolean culls = neighbor != null && neighbor.getLodLevel() == lodLevel;
+            if (!culls) {
+                neighborBorders[face] = EMPTY_BORDER;
+            } else {
+                neighborBorders[face] = lodLevel > 0 ? neighbor.getCoarseBorderSlice(face ^ 1) : neighbor.getBorderSlice(face ^ 1);
+            }
+        }
+    }
+
+    // A local coordinate just past the chunk in a direction (-1, inside, or CHUNK_SIZE)
+    private static int borderCoord(int d) {
+        return d < 0 ? -1 : (d > 0 ? Chunk.CHUNK_SIZE : 0);
+    }
+
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    public int getVersion(int section) {
+        return versions[section];
+    }
+
+    public int getLodLevel() {
+        return lodLevel;
+    }
+
+    // Same accessors as Chunk (out-of-bounds coordinates read as air)
+
+    public int getBlockID(int x, int y, int z) {
+        if (((x | y | z) & ~Chunk.CHUNK_MASK) != 0) {
+            return 0;
+        }
+        return getBlockIDAt(Chunk.getIndex(x, y, z));
+    }
+
+    public int getBlockIDAt(int index) {
+        return sections[index >>> Chunk.SECTION_VOLUME_SHIFT].get(index & SECTION_INDEX_MASK);
+    }
+
+    public boolean isSectionUniform(int section) {
+        return sections[section].isUniform();
+    }
+
+    public int getSectionUniformBlockID(int section) {
+        return sections[section].getUniformBlockID();
+    }
+
+    // Opacity slice of the neighbor across a face, in the layout of Chunk.getBorderSlice, or of
+    // Chunk.getCoarseBorderSlice when getLodLevel() > 0 (never null)
+    public long[] getNeighborBorder(int face) {
+        return neighborBorders[face];
+    }
+
+    // Whether the voxel one step outside the chunk (exactly one coordinate out of range) is solid
+    public boolean isNeighborSolid(int nx, int ny, int nz) {
+        if (nz == Chunk.CHUNK_SIZE) {
+            return ((neighborBorders[BlockRegistry.FACE_FRONT][ny] >>> nx) & 1L) != 0;
+        } else if (nz < 0) {
+            return ((neighborBorders[BlockRegistry.FACE_BACK][ny] >>> nx) & 1L) != 0;
+        } else if (nx < 0) {
+            return ((neighborBorders[BlockRegistry.FACE_LEFT][ny] >>> nz) & 1L) != 0;
+        } else if (nx == Chunk.CHUNK_SIZE) {
+            return ((neighborBorders[BlockRegistry.FACE_RIGHT][ny] >>> nz) & 1L) != 0;
+        } else if (ny < 0) {
+            return ((neighborBorders[BlockRegistry.FACE_BOTTOM][nx] >>> nz) & 1L) != 0;
+        } else {
+            return ((neighborBorders[BlockRegistry.FACE_TOP][nx] >>> nz) & 1L) != 0;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ChunkUtilities;
+
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+
+// Queues only the section meshes whose bounding boxes touch the view frustum.
+// Tests are hierarchical: a region (see ChunkRegionGrid) fully outside drops all its chunks and one fully
+// inside accepts them without further tests; only boxes crossing a frustum plane are refined to chunks and
+// then to sections. Counts of the current frame are kept for reporting; they stay zero on frames where another
+// pass (OcclusionCuller) picks the sections and only uses isSectionVisible(). GL thread only.
+public class FrustumCuller {
+    private final Matrix4f viewProjection = new Matrix4f();
+    private final FrustumIntersection frustum = new FrustumIntersection();
+    private float voxelSize = 1f; // World units per voxel
+    private int originX, originY, originZ; // Point the view matrix is relative to, in voxels
+
+    // This frame (reset by update())
+    private int regionsCulled;
+    private int chunksDrawn;
+    private int chunksCulled;
+    private int sectionsDrawn;
+    private int sectionsCulled;
+    private long cullNanos;
+
+    // Take this frame's camera matrices (the same ones the chunk shader uses, with the view relative to
+    // origin in voxels) and start its counts
+    public void update(Matrix4f projection, Matrix4f view, float voxelSize, int originX, int originY, int originZ) {
+        projection.mul(view, viewProjection);
+        frustum.set(viewProjection, false);
+        this.voxelSize = voxelSize;
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+        regionsCulled = 0;
+        chunksDrawn = 0;
+        chunksCulled = 0;
+        sectionsDrawn = 0;
+        sectionsCulled = 0;
+        cullNanos = 0L;
+    }
+
+    // Add every visible section mesh of the world to the renderer
+    public void cull(World world, ChunkRenderer renderer) {
+        long start = System.nanoTime();
+
+        for (ChunkRegionGrid.Region region : world.getRegions().getRegions()) {
+            int regionResult = intersect(region.getMinX(), region.getMinY(), region.getMinZ(),
+                    region.getMaxX(), region.getMaxY(), region.getMaxZ());
+            if (isOutside(regionResult)) {
+                regionsCulled++;
+                chunksCulled += region.getChunks().size();
+                continue;
+            }
+            boolean regionInside = regionResult == FrustumIntersection.INSIDE;
+            for (Chunk chunk : region.getChunks()) {
+                addChunk(chunk, regionInside, renderer);
+            }
+        }
+
+        cullNanos = System.nanoTime() - start;
+        if (MeshStats.isLogEnabled(LogLevel.TRACE)) {
+            MeshStats.log(LogLevel.TRACE, "Frustum culling: " + chunksDrawn + " chunks drawn, " + chunksCulled + " culled ("
+                    + regionsCulled + " regions), " + sectionsDrawn + " sections drawn, " + sectionsCulled + " culled, "
+                    + (cullNanos / 1000) + " us");
+        }
+    }
+
+    private void addChunk(Chunk chunk, boolean inside, ChunkRenderer renderer) {
+        int x = chunk.getChunkX() << Chunk.CHUNK_SHIFT;
+        int y = chunk.getChunkY() << Chunk.CHUNK_SHIFT;
+        int z = chunk.getChunkZ() << Chunk.CHUNK_SHIFT;
+        if (!inside) {
+            int result = intersect(x, y, z, x + Chunk.CHUNK_SIZE, y + Chunk.CHUNK_SIZE, z + Chunk.CHUNK_SIZE);
+            if (isOutside(result)) {
+                chunksCulled++;
+                return;
+            }
+            inside = result == FrustumIntersection.INSIDE;
+        }
+
+        boolean drawn = false;
+        for (int section = 0; section < Chunk.SECTION_COUNT; section++) {
+            ChunkMesh mesh = chunk.getSectionMesh(section);
+            if (mesh == null || mesh.getQuadCount() == 0) {
+                continue;
+            }
+            int sectionY = y + (section << Chunk.SECTION_SHIFT);
+            if (!inside && !test(x, sectionY, z, x + Chunk.CHUNK_SIZE, sectionY + Chunk.SECTION_HEIGHT, z + Chunk.CHUNK_SIZE)) {
+                sectionsCulled++;
+                continue;
+            }
+            renderer.add(chunk, section, mesh);
+            sectionsDrawn++;
+            drawn = true;
+        }
+        if (drawn) {
+            chunksDrawn++;
+        }
+    }
+
+    // Whether a section's bounding box touches the frustum (for other culling passes, see OcclusionCuller)
+    public boolean isSectionVisible(Chunk chunk, int section) {
+        int x = chunk.getChunkX() << Chunk.CHUNK_SHIFT;
+        int y = (chunk.getChunkY() << Chunk.CHUNK_SHIFT) + (section << Chunk.SECTION_SHIFT);
+        int z = chunk.getChunkZ() << Chunk.CHUNK_SHIFT;
+        return test(x, y, z, x + Chunk.CHUNK_SIZE, y + Chunk.SECTION_HEIGHT, z + Chunk.CHUNK_SIZE);
+    }
+
+    // Box tests take world voxel coordinates, made relative to the origin before converting to float
+    private int intersect(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return frustum.intersectAab((minX - originX) * voxelSize, (minY - originY) * voxelSize, (minZ - originZ) * voxelSize,
+                (maxX - originX) * voxelSize, (maxY - originY) * voxelSize, (maxZ - originZ) * voxelSize);
+    }
+
+    private boolean test(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return frustum.testAab((minX - originX) * voxelSize, (minY - originY) * voxelSize, (minZ - originZ) * voxelSize,
+                (maxX - originX) * voxelSize, (maxY - originY) * voxelSize, (maxZ - originZ) * voxelSize);
+    }
+
+    // intersectAab() returns the index of the culling plane for boxes outside the frustum
+    private static boolean isOutside(int result) {
+        return result != FrustumIntersection.INSIDE && result != FrustumIntersection.INTERSECT;
+    }
+
+    public int getRegionsCulled() {
+        return regionsCulled;
+    }
+
+    public int getChunksDrawn() {
+        return chunksDrawn;
+    }
+
+    public int getChunksCulled() {
+        return chunksCulled;
+    }
+
+    public int getSectionsDrawn() {
+        return sectionsDrawn;
+    }
+
+    public int getSectionsCulled() {
+        return sectionsCulled;
+    }
+
+    // Time cull() took this frame, in nanoseconds (0 if it did not run)
+    public long getCullNanos() {
+        return cullNanos;
+    }
+}
@@ -0,0 +1,147 @@
+package ChunkUtilities;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Free-list sub-allocator for one large GPU buffer (bookkeeping only, no GL calls).
+// Units are whatever the owner chooses (ChunkBuffers uses vertices). Allocation is best fit;
+// freed blocks are merged with free neighbors, so free space stays in as few blocks as possible.
+public class GpuArena {
+    private final TreeMap<Integer, Integer> freeByOffset = new TreeMap<>(); // Free block offset -> size
+    private final TreeSet<Long> freeBySize = new TreeSet<>(); // (size << 32) | offset, smallest first
+
+    private int capacity;
+    private int used;
+
+    public GpuArena(int capacity) {
+        this.capacity = capacity;
+        addFree(0, capacity);
+    }
+
+    // Offset of a new block of size units, or -1 if no free block is large enough
+    public int allocate(int size) {
+        if (size <= 0) {
+            return 0;
+        }
+        Long best = freeBySize.ceiling(pack(size, 0));
+        if (best == null) {
+            return -1;
+        }
+        int offset = (int) (long) best;
+        int blockSize = (int) (best >>> 32);
+        removeFree(offset, blockSize);
+        if (blockSize > size) {
+            addFree(offset + size, blockSize - size); // Keep the remainder
+        }
+        used += size;
+        return offset;
+    }
+
+    // Offset of a free block of size units that starts below limit (lowest fitting block), or -1.
+    // Used to move live blocks towards the start of the buffer.
+    public int allocateBelow(int size, int limit) {
+        for (Map.Entry<Integer, Integer> block : freeByOffset.headMap(limit, false).entrySet()) {
+            if (block.getValue() >= size) {
+                int offset = block.getKey();
+                int blockSize = block.getValue();
+                removeFree(offset, blockSize);
+                if (blockSize > size) {
+                    addFree(offset + size, blockSize - size);
+                }
+                used += size;
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    // Return a block to the arena
+    public void free(int offset, int size) {
+        if (size <= 0) {
+            return;
+        }
+        used -= size;
+
+        // Merge with the free blocks right before and after it
+        Map.Entry<Integer, Integer> before = freeByOffset.floorEntry(offset);
+        if (before != null && before.getKey() + before.getValue() == offset) {
+            removeFree(before.getKey(), before.getValue());
+            offset = before.getKey();
+            size += before.getValue();
+        }
+        Integer afterSize = freeByOffset.get(offset + size);
+        if (afterSize != null) {
+            removeFree(offset + size, afterSize);
+            size += afterSize;
+        }
+        addFree(offset, size);
+    }
+
+    // Give back the end of a block that shrank in place
+    public void shrink(int offset, int oldSize, int newSize) {
+        if (newSize < oldSize) {
+            free(offset + newSize, oldSize - newSize);
+        }
+    }
+
+    // Extend the arena (the owner has already grown the buffer behind it)
+    public void grow(int newCapacity) {
+        if (newCapacity <= capacity) {
+            return;
+        }
+        int oldCapacity = capacity;
+        capacity = newCapacity;
+        used += newCapacity - oldCapacity; // free() below subtracts it again
+        free(oldCapacity, newCapacity - oldCapacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getUsed() {
+        return used;
+    }
+
+    public int getFree() {
+        return capacity - used;
+    }
+
+    public int getFreeBlockCount() {
+        return freeByOffset.size();
+    }
+
+    public int getLargestFreeBlock() {
+        return freeBySize.isEmpty() ? 0 : (int) (freeBySize.last() >>> 32);
+    }
+
+    // 0 when all free space is one block, approaching 1 as it splits into many small holes
+    public double getFragmentation() {
+        int free = getFree();
+        return free == 0 ? 0.0 : 1.0 - (double) getLargestFreeBlock() / free;
+    }
+
+    // End of the highest used unit (everything above it is free)
+    public int getHighWaterMark() {
+        Map.Entry<Integer, Integer> last = freeByOffset.lastEntry();
+        if (last != null && last.getKey() + last.getValue() == capacity) {
+            return last.getKey();
+        }
+        return capacity;
+    }
+
+    private void addFree(int offset, int size) {
+        freeByOffset.put(offset, size);
+        freeBySize.add(pack(size, offset));
+    }
+
+    private void removeFree(int offset, int size) {
+        freeByOffset.remove(offset);
+        freeBySize.remove(pack(size, offset));
+    }
+
+    private static long pack(int size, int offset) {
+        return ((long) size << 32) | (offset & 0xFFFFFFFFL);
+    }
+}
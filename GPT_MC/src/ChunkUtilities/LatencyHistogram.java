@@ -0,0 +1,78 @@
+package ChunkUtilities;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Thread-safe latency histogram with power-of-two microsecond buckets.
+// Bucket i counts samples in [2^(i-1), 2^i) microseconds (bucket 0 is under 1 us), so recording is a few atomic adds
+// and percentiles are accurate to within a factor of two, which is enough to spot regressions.
+public class LatencyHistogram {
+    private static final int BUCKETS = 40; // Up to ~6 days, far beyond any frame
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public void record(long nanos) {
+        long micros = Math.max(nanos, 0L) / 1000;
+        int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanMicros() {
+        long samples = count.sum();
+        return samples == 0 ? 0.0 : totalNanos.sum() / 1000.0 / samples;
+    }
+
+    // Upper bound (in microseconds) of the bucket holding the given percentile (0-100), capped at the maximum
+    public long getPercentileMicros(double percentile) {
+        long samples = count.sum();
+        if (samples == 0) {
+            return 0;
+        }
+        long maxMicros = (maxNanos.get() + 999) / 1000;
+        long target = (long) Math.ceil(samples * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(1L << i, maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"count\": %d, \"meanMicros\": %.1f, \"p50Micros\": %d, \"p90Micros\": %d, \"p99Micros\": %d, \"maxMicros\": %d}",
+                getCount(), getMeanMicros(), getPercentileMicros(50), getPercentileMicros(90), getPercentileMicros(99),
+                getMaxNanos() / 1000);
+    }
+}
@@ -0,0 +1,9 @@
+package ChunkUtilities;
+
+// Console verbosity for chunk meshing output (see MeshStats.setLogLevel)
+public enum LogLevel {
+    OFF, // Nothing
+    INFO, // Summaries (e.g. the stats dump on shutdown)
+    DEBUG, // One line per mesh build or upload
+    TRACE // Per-face detail, only for debugging a single chunk
+}
@@ -0,0 +1,187 @@
+package ChunkUtilities;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+// Open-addressing hash map from a packed position (see World.packKey) to an object.
+// Keys stay primitive longs (no boxing); collisions use linear probing with backward-shift deletion.
+// Null values are not stored: a null slot marks an empty one.
+public class LongObjectMap<V> implements Iterable<V> {
+    private static final int INITIAL_CAPACITY = 64; // Must be a power of two
+    private static final float MAX_LOAD = 0.5f; // Keep probe sequences short
+
+    private long[] keys;
+    private Object[] values; // A null value marks an empty slot
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongObjectMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = hash(key) & mask;
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    // Insert or replace; returns the previous value stored under the key, if any
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " does not store null values");
+        }
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V removed = (V) values[slot];
+                shiftBack(slot);
+                size--;
+                return removed;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // Iterate over the values without allocating an iterator
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super V> action) {
+        Object[] table = values;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null) {
+                action.accept((V) table[i]);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < values.length && values[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < values.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (next >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                V value = (V) values[next];
+                next = advance(next + 1);
+                return value;
+            }
+        };
+    }
+
+    // Close the gap left by a removed entry so later probes still find their keys
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            Object value = values[slot];
+            if (value == null) {
+                break;
+            }
+            int home = hash(keys[slot]) & mask;
+            // Move the entry into the gap if its home slot is not between the gap and its current slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = value;
+                gap = slot;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * MAX_LOAD);
+    }
+
+    // 64-bit mix (MurmurHash3 finalizer) so neighboring position keys spread across the table
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,113 @@
+package ChunkUtilities;
+
+import java.nio.ByteBuffer;
+
+import org.lwjgl.system.MemoryUtil;
+
+// Growable, primitive vertex builder backed by off-heap memory.
+// Each meshing thread reuses one builder (see forCurrentThread()), so building a mesh does not allocate per face
+// and the buffer can be handed to glBufferData without any intermediate copy.
+// Meshes carry no indices: every quad is 4 consecutive vertices drawn with the shared QuadIndexBuffer.
+//
+// Vertices are packed into two unsigned ints (8 bytes), unpacked by shaders/chunk_vertex.glsl:
+//   word 0: x (6 bits) | y (6) | z (6) | face slot (3) | corner (2)   chunk-local voxel corner, 0..CHUNK_SIZE
+//   word 1: texture index (16 bits) | quad width (6) | quad height (6)   texture index = layer of the texture array,
+//                                                                       width/height scale the corner UV for tiling
+// World positions come from the chunkOrigin vertex attribute (one origin per draw, see ChunkRenderer),
+// so nothing here depends on where the chunk is.
+public class MeshBuilder {
+    public static final int VERTEX_BYTES = 2 * Integer.BYTES; // Two packed words per vertex
+    public static final int VERTICES_PER_QUAD = 4;
+    public static final int INDICES_PER_QUAD = 6; // Two triangles per face (see QuadIndexBuffer)
+
+    // Packed field layout (keep in sync with chunk_vertex.glsl)
+    public static final int POSITION_BITS = 6; // Holds 0..CHUNK_SIZE inclusive
+    private static final int POSITION_MASK = (1 << POSITION_BITS) - 1;
+    private static final int FACE_SHIFT = 3 * POSITION_BITS;
+    private static final int CORNER_SHIFT = FACE_SHIFT + 3;
+    private static final int TEXTURE_MASK = 0xFFFF; // NO_TEXTURE (-1) packs as 0xFFFF
+    private static final int WIDTH_SHIFT = 16;
+    private static final int HEIGHT_SHIFT = WIDTH_SHIFT + POSITION_BITS;
+
+    private static final int INITIAL_QUADS = 1024; // Initial capacity, grows by doubling
+
+    private static final ThreadLocal<MeshBuilder> BUILDERS = ThreadLocal.withInitial(MeshBuilder::new);
+
+    private ByteBuffer vertices; // Off-heap vertex data
+    private int quadCapacity; // Quads the buffer can hold
+    private int vertexCount;
+    private int quadCount;
+
+    // Attributes shared by the 4 vertices of the current quad
+    private int quadFace;
+    private int quadAttributes; // Packed word 1
+
+    public MeshBuilder() {
+        vertices = MemoryUtil.memAlloc(INITIAL_QUADS * VERTICES_PER_QUAD * VERTEX_BYTES);
+        quadCapacity = INITIAL_QUADS;
+    }
+
+    // The builder owned by the calling thread, cleared and ready for a new mesh
+    public static MeshBuilder forCurrentThread() {
+        MeshBuilder builder = BUILDERS.get();
+        builder.reset();
+        return builder;
+    }
+
+    public void reset() {
+        vertices.clear();
+        vertexCount = 0;
+        quadCount = 0;
+    }
+
+    // Start a quad on a face slot (BlockRegistry.FACE_*) spanning width x height voxels;
+    // exactly 4 vertex() calls follow, in corner order (QuadIndexBuffer draws them as 0-1-2, 2-3-0)
+    public void beginQuad(int textureIndex, int face, int width, int height) {
+        ensureQuadCapacity(quadCount + 1);
+        quadCount++;
+        quadFace = face;
+        quadAttributes = (textureIndex & TEXTURE_MASK) | (width << WIDTH_SHIFT) | (height << HEIGHT_SHIFT);
+    }
+
+    // Append one vertex of the current quad: chunk-local voxel corner position and corner ID
+    // (0 = UV (0,0), 1 = (1,0), 2 = (1,1), 3 = (0,1))
+    public void vertex(int x, int y, int z, int corner) {
+        int offset = vertexCount * VERTEX_BYTES;
+        vertices.putInt(offset, (x & POSITION_MASK) | (y & POSITION_MASK) << POSITION_BITS
+                | (z & POSITION_MASK) << (2 * POSITION_BITS) | quadFace << FACE_SHIFT | corner << CORNER_SHIFT);
+        vertices.putInt(offset + 4, quadAttributes);
+        vertexCount++;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    // Vertex bytes written so far, positioned for glBufferData (valid until the next reset)
+    public ByteBuffer getVertexData() {
+        vertices.limit(vertexCount * VERTEX_BYTES).position(0);
+        return vertices;
+    }
+
+    // Release the off-heap memory (the builder must not be used afterwards)
+    public void free() {
+        MemoryUtil.memFree(vertices);
+        vertices = null;
+    }
+
+    private void ensureQuadCapacity(int quads) {
+        if (quads <= quadCapacity) {
+            return;
+        }
+        int newQuads = quadCapacity;
+        while (newQuads < quads) {
+            newQuads <<= 1;
+        }
+        vertices = MemoryUtil.memRealloc(vertices.clear(), newQuads * VERTICES_PER_QUAD * VERTEX_BYTES);
+        quadCapacity = newQuads;
+    }
+}
@@ -0,0 +1,321 @@
+package ChunkUtilities;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.lwjgl.system.MemoryUtil;
+
+// Two-tier cache of section meshes keyed by MeshKey (a hash of the voxels the mesh depends on).
+//   GPU tier (GL thread): one ChunkMesh per key, shared by every section with identical content and reference
+//   counted. Unused meshes are kept until the LRU byte budget is exceeded.
+//   Disk tier (worker threads, optional): mesh blobs in a cache directory, so a cold start reads geometry
+//   instead of meshing it. Also capped by an LRU byte budget; least recently used files are deleted.
+public class MeshCache {
+    private static final int BLOB_MAGIC = 0x47534D48; // "GSMH"
+    private static final int BLOB_VERSION = 3; // 3: vertices only, indices come from QuadIndexBuffer
+    private static final String BLOB_SUFFIX = ".mesh";
+
+    // GPU tier, accessed on the GL thread only (access-ordered: eldest = least recently used)
+    private final LinkedHashMap<MeshKey, Entry> gpuEntries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<MeshKey> residentKeys = ConcurrentHashMap.newKeySet(); // Read by the workers
+    private final long gpuBudgetBytes;
+    private long gpuBytes;
+
+    // Disk tier (null directory = memory only), guarded by diskFiles
+    private final Path directory;
+    private final long diskBudgetBytes;
+    private final LinkedHashMap<String, Long> diskFiles = new LinkedHashMap<>(64, 0.75f, true); // File name -> size
+    private long diskBytes;
+
+    private static final class Entry {
+        final ChunkMesh mesh;
+        final long bytes;
+        int references; // Sections currently drawing this mesh
+
+        Entry(ChunkMesh mesh, long bytes) {
+            this.mesh = mesh;
+            this.bytes = bytes;
+        }
+    }
+
+    // Memory-only cache
+    public MeshCache(long gpuBudgetBytes) {
+        this(gpuBudgetBytes, null, 0);
+    }
+
+    // Cache with a disk tier in directory (created if missing); existing blobs are indexed oldest first
+    public MeshCache(long gpuBudgetBytes, Path directory, long diskBudgetBytes) {
+        this.gpuBudgetBytes = gpuBudgetBytes;
+        this.diskBudgetBytes = diskBudgetBytes;
+        this.directory = directory != null ? indexDirectory(directory) : null;
+    }
+
+    private Path indexDirectory(Path dir) {
+        try {
+            Files.createDirectories(dir);
+            List<Path> blobs = new ArrayList<>();
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(file -> file.getFileName().toString().endsWith(BLOB_SUFFIX)).forEach(blobs::add);
+            }
+            blobs.sort(Comparator.comparingLong(MeshCache::lastModified));
+            synchronized (diskFiles) {
+                for (Path blob : blobs) {
+                    long size = Files.size(blob);
+                    diskFiles.put(blob.getFileName().toString(), size);
+                    diskBytes += size;
+                }
+                trimDisk(dir);
+            }
+            MeshStats.log(LogLevel.INFO, "Mesh cache: " + diskFiles.size() + " blobs (" + diskBytes + " bytes) in " + dir);
+            return dir;
+        } catch (IOException e) {
+            System.err.println("Mesh cache directory " + dir + " unavailable, caching in memory only: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    // GPU tier
+
+    // Whether a mesh for the key is on the GPU (any thread; may be evicted right after, see acquire())
+    public boolean isResident(MeshKey key) {
+        return residentKeys.contains(key);
+    }
+
+    // Take a reference to the cached mesh for a key, or null if it is not resident (GL thread)
+    public ChunkMesh acquire(MeshKey key) {
+        Entry entry = gpuEntries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.references++;
+        return entry.mesh;
+    }
+
+    // Upload geometry as the shared mesh for its key and take a reference to it (GL thread)
+    public ChunkMesh upload(MeshData data) {
+        ChunkMesh mesh = acquire(data.getCacheKey());
+        if (mesh != null) {
+            return mesh; // Another section with the same content got there first
+        }
+        mesh = new ChunkMesh();
+        mesh.upload(data);
+        Entry entry = new Entry(mesh, mesh.getGpuBytes());
+        entry.references = 1;
+        gpuEntries.put(data.getCacheKey(), entry);
+        residentKeys.add(data.getCacheKey());
+        gpuBytes += entry.bytes;
+        trimGpu();
+        return mesh;
+    }
+
+    // Drop a reference taken with acquire() or upload(); unreferenced meshes stay cached until evicted (GL thread)
+    public void release(MeshKey key) {
+        Entry entry = gpuEntries.get(key);
+        if (entry != null && entry.references > 0) {
+            entry.references--;
+            trimGpu();
+        }
+    }
+
+    // Delete unreferenced meshes, least recently used first, until the tier fits its budget
+    private void trimGpu() {
+        Iterator<Map.Entry<MeshKey, Entry>> it = gpuEntries.entrySet().iterator();
+        while (gpuBytes > gpuBudgetBytes && it.hasNext()) {
+            Map.Entry<MeshKey, Entry> eldest = it.next();
+            Entry entry = eldest.getValue();
+            if (entry.references > 0) {
+                continue; // Still drawn by some section
+            }
+            it.remove();
+            residentKeys.remove(eldest.getKey());
+            gpuBytes -= entry.bytes;
+            entry.mesh.cleanup();
+        }
+    }
+
+    public long getGpuBytes() {
+        return gpuBytes;
+    }
+
+    public int getGpuMeshCount() {
+        return gpuEntries.size();
+    }
+
+    // Delete every cached GPU mesh (GL thread, after the chunks released theirs)
+    public void clear() {
+        for (Entry entry : gpuEntries.values()) {
+            entry.mesh.cleanup();
+        }
+        gpuEntries.clear();
+        residentKeys.clear();
+        gpuBytes = 0;
+    }
+
+    // Disk tier
+
+    public boolean hasDiskTier() {
+        return directory != null;
+    }
+
+    // Read a mesh blob for a section, or null if there is none (worker threads)
+    public MeshData load(MeshKey key, Chunk chunk, int section, int version) {
+        if (directory == null) {
+            return null;
+        }
+        String name = key + BLOB_SUFFIX;
+        synchronized (diskFiles) {
+            if (diskFiles.get(name) == null) {
+                return null; // Also marks the file as recently used when present
+            }
+        }
+
+        ByteBuffer vertices = null;
+        try (FileChannel channel = FileChannel.open(directory.resolve(name), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES);
+            readFully(channel, header);
+            header.flip();
+            if (header.getInt() != BLOB_MAGIC || header.getInt() != BLOB_VERSION) {
+                throw new IOException("not a mesh blob");
+            }
+            int vertexCount = header.getInt();
+            int quadCount = header.getInt();
+            if (vertexCount != quadCount * MeshBuilder.VERTICES_PER_QUAD) {
+                throw new IOException("corrupt mesh blob header");
+            }
+
+            // Straight into an off-heap buffer, ready for glBufferData
+            vertices = MemoryUtil.memAlloc(Math.max(vertexCount * MeshBuilder.VERTEX_BYTES, 1));
+            vertices.limit(vertexCount * MeshBuilder.VERTEX_BYTES);
+            readFully(channel, vertices);
+            vertices.flip();
+            return new MeshData(chunk, section, version, key, vertexCount, quadCount, vertices);
+        } catch (IOException e) {
+            if (vertices != null) {
+                MemoryUtil.memFree(vertices);
+            }
+            MeshStats.log(LogLevel.DEBUG, "Dropping unreadable mesh blob " + name + ": " + e.getMessage());
+            forget(name);
+            return null;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("truncated mesh blob");
+            }
+        }
+    }
+
+    // Write a freshly built mesh to the disk tier (worker threads). Empty meshes are not worth a file.
+    public void store(MeshData data) {
+        if (directory == null || data.getCacheKey() == null || data.getVertexCount() == 0) {
+            return;
+        }
+        String name = data.getCacheKey() + BLOB_SUFFIX;
+        synchronized (diskFiles) {
+            if (diskFiles.containsKey(name)) {
+                return; // Identical content already stored
+            }
+        }
+
+        // Write to a temporary file and move it in place, so readers never see a partial blob
+        Path target = directory.resolve(name);
+        Path temp = directory.resolve(name + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(BLOB_MAGIC);
+                out.writeInt(BLOB_VERSION);
+                out.writeInt(data.getVertexCount());
+                out.writeInt(data.getQuadCount());
+                writeBuffer(out, data.getVertexData());
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(target);
+            synchronized (diskFiles) {
+                Long previous = diskFiles.put(name, size);
+                diskBytes += size - (previous != null ? previous : 0L);
+                trimDisk(directory);
+            }
+        } catch (IOException e) {
+            MeshStats.log(LogLevel.DEBUG, "Failed to store mesh blob " + name + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Nothing more to do
+            }
+        }
+    }
+
+    // Raw buffer bytes: blobs are machine-local, so vertex words stay in native byte order
+    private static void writeBuffer(DataOutputStream out, ByteBuffer buffer) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        byte[] bytes = new byte[8192];
+        while (source.hasRemaining()) {
+            int length = Math.min(bytes.length, source.remaining());
+            source.get(bytes, 0, length);
+            out.write(bytes, 0, length);
+        }
+    }
+
+    // Delete the least recently used blobs until the tier fits its budget (holding diskFiles)
+    private void trimDisk(Path dir) {
+        Iterator<Map.Entry<String, Long>> it = diskFiles.entrySet().iterator();
+        while (diskBytes > diskBudgetBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            diskBytes -= eldest.getValue();
+            try {
+                Files.deleteIfExists(dir.resolve(eldest.getKey()));
+            } catch (IOException e) {
+                MeshStats.log(LogLevel.DEBUG, "Failed to delete mesh blob " + eldest.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void forget(String name) {
+        synchronized (diskFiles) {
+            Long size = diskFiles.remove(name);
+            if (size != null) {
+                diskBytes -= size;
+            }
+        }
+        try {
+            Files.deleteIfExists(directory.resolve(name));
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    public long getDiskBytes() {
+        synchronized (diskFiles) {
+            return diskBytes;
+        }
+    }
+}
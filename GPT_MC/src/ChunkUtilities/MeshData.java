@@ -0,0 +1,132 @@
+package ChunkUtilities;
+
+import java.nio.ByteBuffer;
+
+import org.lwjgl.system.MemoryUtil;
+
+// Finished CPU-side geometry for one chunk section, waiting to be uploaded by ChunkMesh.
+// Owns an off-heap copy of the builder's vertices (the builder is reused by its thread); free() releases them.
+// A cache reference carries no geometry at all: its MeshKey names a mesh already resident in the MeshCache.
+public class MeshData {
+    private final Chunk chunk; // Chunk the mesh belongs to
+    private final int section; // Section of the chunk the mesh covers
+    private final int version; // Section mesh version this geometry was built from
+    private final long buildNanos; // Time spent generating the geometry
+
+    private ByteBuffer vertices; // No indices: quads are drawn with the shared QuadIndexBuffer
+    private final int vertexCount;
+    private final int quadCount;
+    private MeshKey cacheKey; // Content key when the mesh cache is in use (null otherwise)
+    private final boolean cacheReference; // No geometry: reuse the cached GPU mesh for cacheKey
+    private long visibility = SectionVisibility.ALL; // Face-to-face connectivity of the section (see SectionVisibility)
+
+    MeshData(Chunk chunk, int section, int version, MeshBuilder builder, long buildNanos) {
+        this.chunk = chunk;
+        this.section = section;
+        this.version = version;
+        this.buildNanos = buildNanos;
+        this.vertexCount = builder.getVertexCount();
+        this.quadCount = builder.getQuadCount();
+        this.vertices = copy(builder.getVertexData());
+        this.cacheReference = false;
+    }
+
+    // Geometry read back from the disk cache; takes ownership of the buffer
+    MeshData(Chunk chunk, int section, int version, MeshKey cacheKey, int vertexCount, int quadCount,
+             ByteBuffer vertices) {
+        this.chunk = chunk;
+        this.section = section;
+        this.version = version;
+        this.buildNanos = 0;
+        this.cacheKey = cacheKey;
+        this.vertexCount = vertexCount;
+        this.quadCount = quadCount;
+        this.vertices = vertices;
+        this.cacheReference = false;
+    }
+
+    // Reference to a mesh already resident on the GPU
+    private MeshData(Chunk chunk, int section, int version, MeshKey cacheKey) {
+        this.chunk = chunk;
+        this.section = section;
+        this.version = version;
+        this.buildNanos = 0;
+        this.cacheKey = cacheKey;
+        this.vertexCount = 0;
+        this.quadCount = 0;
+        this.cacheReference = true;
+    }
+
+    static MeshData cacheReference(Chunk chunk, int section, int version, MeshKey cacheKey) {
+        return new MeshData(chunk, section, version, cacheKey);
+    }
+
+    private static ByteBuffer copy(ByteBuffer source) {
+        ByteBuffer copy = MemoryUtil.memAlloc(Math.max(source.remaining(), 1));
+        copy.put(source).flip();
+        return copy;
+    }
+
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    public int getSection() {
+        return section;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    public MeshKey getCacheKey() {
+        return cacheKey;
+    }
+
+    void setCacheKey(MeshKey cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public long getVisibility() {
+        return visibility;
+    }
+
+    void setVisibility(long visibility) {
+        this.visibility = visibility;
+    }
+
+    // True if this carries no geometry and names a mesh resident in the MeshCache
+    public boolean isCacheReference() {
+        return cacheReference;
+    }
+
+    // Vertex bytes, positioned for glBufferData
+    public ByteBuffer getVertexData() {
+        return vertices.position(0);
+    }
+
+    // Bytes that will be sent to the GPU (used for upload budgets)
+    public long getByteSize() {
+        return (long) vertexCount * MeshBuilder.VERTEX_BYTES;
+    }
+
+    // Release the off-heap copy (safe to call twice)
+    public void free() {
+        if (vertices != null) {
+            MemoryUtil.memFree(vertices);
+            vertices = null;
+        }
+    }
+}
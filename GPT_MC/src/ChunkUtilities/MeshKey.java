@@ -0,0 +1,160 @@
+package ChunkUtilities;
+
+import java.util.Locale;
+
+import Block_Entities.BlockRegistry;
+
+// Content hash of everything one section mesh depends on: the section's block IDs, the opacity of the voxel rows
+// just above and below it, the neighbor border rows beside it, the level of detail, the meshing mode and the block
+// registry. Vertices are chunk-local, so two sections with the same key have identical geometry wherever they are.
+// 128 bits (two independently seeded 64-bit hashes), so collisions are not a practical concern.
+public final class MeshKey {
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final int FORMAT_VERSION = 1; // Bump when the mesher or vertex format changes
+
+    private static volatile long registryHash; // 0 = not computed yet
+
+    private final long hash1;
+    private final long hash2;
+
+    private MeshKey(long hash1, long hash2) {
+        this.hash1 = hash1;
+        this.hash2 = hash2;
+    }
+
+    // Key of a section of a snapshot meshed with the given mode
+    public static MeshKey of(ChunkSnapshot chunk, int section, MeshingMode mode) {
+        Hasher hasher = new Hasher();
+        hasher.add(FORMAT_VERSION);
+        hasher.add(getRegistryHash());
+        int level = chunk.getLodLevel();
+        hasher.add(level);
+        hasher.add(level > 0 ? -1 : mode.ordinal()); // Reduced-detail meshes ignore the meshing mode
+
+        // The section's own blocks decide textures as well as shape
+        if (chunk.isSectionUniform(section)) {
+            hasher.add(-1);
+            hasher.add(chunk.getSectionUniformBlockID(section));
+        } else {
+            int first = section << Chunk.SECTION_VOLUME_SHIFT;
+            for (int index = first; index < first + Chunk.SECTION_VOLUME; index++) {
+                hasher.add(chunk.getBlockIDAt(index));
+            }
+        }
+
+        // Outside the section only opacity matters: one cell row (2^level voxel rows) below and above,
+        // inside the chunk or from the neighbor's border slice (in cells at a reduced level of detail)
+        int rows = 1 << level;
+        int borderRows = Chunk.CHUNK_SIZE >> level;
+        int firstY = section << Chunk.SECTION_SHIFT;
+        int lastY = firstY + Chunk.SECTION_HEIGHT - 1;
+        if (section == 0) {
+            hasher.addAll(chunk.getNeighborBorder(BlockRegistry.FACE_BOTTOM), 0, borderRows);
+        } else {
+            addOpacityRows(hasher, chunk, firstY - rows, firstY);
+        }
+        if (section == Chunk.SECTION_COUNT - 1) {
+            hasher.addAll(chunk.getNeighborBorder(BlockRegistry.FACE_TOP), 0, borderRows);
+        } else {
+            addOpacityRows(hasher, chunk, lastY + 1, lastY + 1 + rows);
+        }
+
+        // Side neighbors: the border rows level with the section (slices are indexed by y on these faces)
+        for (int face = BlockRegistry.FACE_FRONT; face <= BlockRegistry.FACE_RIGHT; face++) {
+            hasher.addAll(chunk.getNeighborBorder(face), firstY >> level, Chunk.SECTION_HEIGHT >> level);
+        }
+        return new MeshKey(hasher.hash1, hasher.hash2);
+    }
+
+    private static void addOpacityRows(Hasher hasher, ChunkSnapshot chunk, int fromY, int toY) {
+        for (int y = fromY; y < toY; y++) {
+            for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                long bits = 0L;
+                int index = Chunk.getIndex(x, y, 0);
+                for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                    if (BlockRegistry.isSolid(chunk.getBlockIDAt(index + z))) {
+                        bits |= 1L << z;
+                    }
+                }
+                hasher.add(bits);
+            }
+        }
+    }
+
+    // Fingerprint of the block definitions that reach the mesh (solidity and face textures)
+    private static long getRegistryHash() {
+        long hash = registryHash;
+        if (hash == 0) {
+            Hasher hasher = new Hasher();
+            for (int blockID = 0; blockID < BlockRegistry.getBlockIDLimit(); blockID++) {
+                hasher.add(BlockRegistry.isSolid(blockID) ? 1 : 0);
+                for (int face = 0; face < BlockRegistry.FACE_COUNT; face++) {
+                    int texture = BlockRegistry.getFaceTexture(blockID, face);
+                    hasher.add(texture);
+                    if (texture >= 0) {
+                        hasher.add(BlockRegistry.getTexturePath(texture).hashCode());
+                    }
+                }
+            }
+            hash = hasher.hash1 | 1L; // Never 0
+            registryHash = hash;
+        }
+        return hash;
+    }
+
+    // Drop the cached registry fingerprint (call after reloading the block registry)
+    public static void invalidateRegistryHash() {
+        registryHash = 0;
+    }
+
+    // Hex form, used as the cache file name
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%016x%016x", hash1, hash2);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof MeshKey)) {
+            return false;
+        }
+        MeshKey key = (MeshKey) other;
+        return hash1 == key.hash1 && hash2 == key.hash2;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash1 ^ (hash1 >>> 32));
+    }
+
+    // Two 64-bit multiply-rotate lanes with different seeds and a murmur3 finalizer per input
+    private static final class Hasher {
+        long hash1 = SEED_1;
+        long hash2 = SEED_2;
+
+        void add(long value) {
+            long mixed = fmix(value);
+            hash1 = Long.rotateLeft(hash1 ^ mixed, 31) * 0x87C37B91114253D5L;
+            hash2 = Long.rotateLeft(hash2 ^ (mixed + SEED_1), 33) * 0x4CF5AD432745937FL;
+        }
+
+        void addAll(long[] values, int from, int count) {
+            for (int i = from; i < from + count; i++) {
+                add(values[i]);
+            }
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xFF51AFD7ED558CCDL;
+            k ^= k >>> 33;
+            k *= 0xC4CEB9FE1A85EC53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package ChunkUtilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide counters and latency histograms for chunk meshing, safe to update from the mesher threads.
+// Query them at runtime through the getters or dump everything with toJson(); console output goes through log()
+// and is filtered by the log level (set with -DmeshLogLevel=DEBUG or setLogLevel()).
+public class MeshStats {
+    private static volatile LogLevel logLevel = parseLogLevel(System.getProperty("meshLogLevel", "INFO"));
+
+    // CPU meshing (worker threads)
+    private static final LongAdder meshesBuilt = new LongAdder();
+    private static final LongAdder facesEmitted = new LongAdder();
+    private static final LongAdder voxelsScanned = new LongAdder();
+    private static final LatencyHistogram buildTimes = new LatencyHistogram();
+
+    // GL uploads (render thread)
+    private static final LongAdder meshesUploaded = new LongAdder();
+    private static final LongAdder meshesDiscarded = new LongAdder(); // Superseded before upload
+    private static final LongAdder bytesUploaded = new LongAdder();
+    private static final LatencyHistogram uploadTimes = new LatencyHistogram();
+    private static final LongAdder streamedBytes = new LongAdder(); // Copied through the upload ring
+    private static final LongAdder streamNanos = new LongAdder(); // Time spent writing and queueing those copies
+    private static final LongAdder uploadStalls = new LongAdder(); // Waits for the GPU to free ring space
+    private static final LongAdder uploadStallNanos = new LongAdder();
+
+    // Mesh cache lookups (worker threads)
+    private static final LongAdder gpuCacheHits = new LongAdder(); // Shared an already uploaded mesh
+    private static final LongAdder diskCacheHits = new LongAdder(); // Read geometry from the cache directory
+    private static final LongAdder cacheMisses = new LongAdder(); // Had to mesh
+
+    // Chunk buffer arena (written on the GL thread by ChunkBuffers)
+    private static final LongAdder arenaReuses = new LongAdder(); // Rebuilt meshes written over their old ranges
+    private static final LongAdder arenaMoves = new LongAdder(); // Ranges moved by defragmentation
+    private static final LongAdder arenaGrowths = new LongAdder(); // Buffers replaced by larger ones
+    private static volatile long arenaCapacityBytes;
+    private static volatile long arenaUsedBytes;
+    private static volatile int arenaFreeBlocks;
+    private static volatile double arenaFragmentation; // 1 - largest free block / free space
+
+    // GPU occlusion queries (see OcclusionQueries)
+    private static final LongAdder occlusionQueries = new LongAdder(); // Bounding boxes queried
+    private static final LongAdder occlusionHits = new LongAdder(); // Section draws skipped as occluded
+    private static final LongAdder occlusionMisses = new LongAdder(); // Section draws kept (visible or no result yet)
+
+    private static volatile long startNanos = System.nanoTime(); // Start of the measurement window
+
+    // Record one finished CPU mesh build
+    public static void recordBuild(long nanos, int faces, int voxels) {
+        meshesBuilt.increment();
+        facesEmitted.add(faces);
+        voxelsScanned.add(voxels);
+        buildTimes.record(nanos);
+    }
+
+    // Record one GL upload of a finished mesh
+    public static void recordUpload(long nanos, long bytes) {
+        meshesUploaded.increment();
+        bytesUploaded.add(bytes);
+        uploadTimes.record(nanos);
+    }
+
+    // Record bytes staged through the upload ring and the CPU time it took (including stalls)
+    public static void recordStreamedUpload(long bytes, long nanos) {
+        streamedBytes.add(bytes);
+        streamNanos.add(nanos);
+    }
+
+    // Record a wait on an upload ring fence
+    public static void recordUploadStall(long nanos) {
+        uploadStalls.increment();
+        uploadStallNanos.add(nanos);
+    }
+
+    // Record a mesh dropped because a newer edit superseded it
+    public static void recordDiscard() {
+        meshesDiscarded.increment();
+    }
+
+    // Record a mesh cache lookup that found the geometry (on disk, or already on the GPU)
+    public static void recordCacheHit(boolean fromDisk) {
+        (fromDisk ? diskCacheHits : gpuCacheHits).increment();
+    }
+
+    public static void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    // Record one frame of occlusion queries
+    public static void recordOcclusion(int queries, int hits, int misses) {
+        occlusionQueries.add(queries);
+        occlusionHits.add(hits);
+        occlusionMisses.add(misses);
+    }
+
+    public static long getOcclusionQueries() {
+        return occlusionQueries.sum();
+    }
+
+    public static long getOcclusionHits() {
+        return occlusionHits.sum();
+    }
+
+    public static long getOcclusionMisses() {
+        return occlusionMisses.sum();
+    }
+
+    public static void recordArenaReuse() {
+        arenaReuses.increment();
+    }
+
+    public static void recordArenaMove() {
+        arenaMoves.increment();
+    }
+
+    public static void recordArenaGrowth() {
+        arenaGrowths.increment();
+    }
+
+    // Current occupancy of the chunk buffer arenas (a snapshot, not reset with the counters)
+    public static void recordArenaState(long capacityBytes, long usedBytes, int freeBlocks, double fragmentation) {
+        arenaCapacityBytes = capacityBytes;
+        arenaUsedBytes = usedBytes;
+        arenaFreeBlocks = freeBlocks;
+        arenaFragmentation = fragmentation;
+    }
+
+    public static long getArenaReuses() {
+        return arenaReuses.sum();
+    }
+
+    public static long getArenaMoves() {
+        return arenaMoves.sum();
+    }
+
+    public static long getArenaGrowths() {
+        return arenaGrowths.sum();
+    }
+
+    // Share of the reserved chunk buffer memory holding live geometry
+    public static double getArenaOccupancy() {
+        long capacity = arenaCapacityBytes;
+        return capacity > 0 ? (double) arenaUsedBytes / capacity : 0.0;
+    }
+
+    public static double getArenaFragmentation() {
+        return arenaFragmentation;
+    }
+
+    public static long getGpuCacheHits() {
+        return gpuCacheHits.sum();
+    }
+
+    public static long getDiskCacheHits() {
+        return diskCacheHits.sum();
+    }
+
+    public static long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public static long getMeshesBuilt() {
+        return meshesBuilt.sum();
+    }
+
+    public static long getFacesEmitted() {
+        return facesEmitted.sum();
+    }
+
+    public static long getVoxelsScanned() {
+        return voxelsScanned.sum();
+    }
+
+    public static long getMeshesUploaded() {
+        return meshesUploaded.sum();
+    }
+
+    public static long getMeshesDiscarded() {
+        return meshesDiscarded.sum();
+    }
+
+    public static long getBytesUploaded() {
+        return bytesUploaded.sum();
+    }
+
+    public static long getStreamedBytes() {
+        return streamedBytes.sum();
+    }
+
+    // Upload ring throughput while uploading, in MB/s
+    public static double getUploadMegabytesPerSecond() {
+        long nanos = streamNanos.sum();
+        return nanos > 0 ? streamedBytes.sum() / (nanos / 1e9) / (1024.0 * 1024.0) : 0.0;
+    }
+
+    public static long getUploadStalls() {
+        return uploadStalls.sum();
+    }
+
+    public static long getUploadStallNanos() {
+        return uploadStallNanos.sum();
+    }
+
+    public static LatencyHistogram getBuildTimes() {
+        return buildTimes;
+    }
+
+    public static LatencyHistogram getUploadTimes() {
+        return uploadTimes;
+    }
+
+    // Average mesh build throughput since the last reset
+    public static double getMeshesPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? meshesBuilt.sum() / seconds : 0.0;
+    }
+
+    // Start a new measurement window
+    public static void reset() {
+        meshesBuilt.reset();
+        facesEmitted.reset();
+        voxelsScanned.reset();
+        buildTimes.reset();
+        meshesUploaded.reset();
+        meshesDiscarded.reset();
+        bytesUploaded.reset();
+        uploadTimes.reset();
+        streamedBytes.reset();
+        streamNanos.reset();
+        uploadStalls.reset();
+        uploadStallNanos.reset();
+        gpuCacheHits.reset();
+        diskCacheHits.reset();
+        cacheMisses.reset();
+        arenaReuses.reset();
+        arenaMoves.reset();
+        arenaGrowths.reset();
+        occlusionQueries.reset();
+        occlusionHits.reset();
+        occlusionMisses.reset();
+        startNanos = System.nanoTime();
+    }
+
+    public static String toJson() {
+        return String.format(Locale.ROOT, "{\n"
+                + "  \"uptimeSeconds\": %.1f,\n"
+                + "  \"meshesBuilt\": %d,\n"
+                + "  \"meshesPerSecond\": %.1f,\n"
+                + "  \"facesEmitted\": %d,\n"
+                + "  \"voxelsScanned\": %d,\n"
+                + "  \"buildTime\": %s,\n"
+                + "  \"meshesUploaded\": %d,\n"
+                + "  \"meshesDiscarded\": %d,\n"
+                + "  \"bytesUploaded\": %d,\n"
+                + "  \"uploadTime\": %s,\n"
+                + "  \"streamedBytes\": %d,\n"
+                + "  \"uploadMegabytesPerSecond\": %.1f,\n"
+                + "  \"uploadStalls\": %d,\n"
+                + "  \"uploadStallMillis\": %.3f,\n"
+                + "  \"gpuCacheHits\": %d,\n"
+                + "  \"diskCacheHits\": %d,\n"
+                + "  \"cacheMisses\": %d,\n"
+                + "  \"arena\": {\"capacityBytes\": %d, \"usedBytes\": %d, \"occupancy\": %.3f, \"freeBlocks\": %d, "
+                + "\"fragmentation\": %.3f, \"reuses\": %d, \"moves\": %d, \"growths\": %d},\n"
+                + "  \"occlusion\": {\"queries\": %d, \"hits\": %d, \"misses\": %d}\n"
+                + "}",
+                (System.nanoTime() - startNanos) / 1e9, getMeshesBuilt(), getMeshesPerSecond(), getFacesEmitted(),
+                getVoxelsScanned(), buildTimes.toJson(), getMeshesUploaded(), getMeshesDiscarded(), getBytesUploaded(),
+                uploadTimes.toJson(), getStreamedBytes(), getUploadMegabytesPerSecond(), getUploadStalls(),
+                getUploadStallNanos() / 1e6, getGpuCacheHits(), getDiskCacheHits(), getCacheMisses(),
+                arenaCapacityBytes, arenaUsedBytes, getArenaOccupancy(), arenaFreeBlocks, arenaFragmentation,
+                getArenaReuses(), getArenaMoves(), getArenaGrowths(), getOcclusionQueries(), getOcclusionHits(),
+                getOcclusionMisses());
+    }
+
+    // Write the JSON dump to a file (e.g. at the end of a session)
+    public static void dump(Path file) throws IOException {
+        Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Console output
+
+    public static LogLevel getLogLevel() {
+        return logLevel;
+    }
+
+    public static void setLogLevel(LogLevel level) {
+        logLevel = level;
+    }
+
+    // Check before building an expensive message
+    public static boolean isLogEnabled(LogLevel level) {
+        return level != LogLevel.OFF && level.ordinal() <= logLevel.ordinal();
+    }
+
+    public static void log(LogLevel level, String message) {
+        if (isLogEnabled(level)) {
+            System.out.println(message);
+        }
+    }
+
+    private static LogLevel parseLogLevel(String name) {
+        try {
+            return LogLevel.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown meshLogLevel: " + name + ", using INFO");
+            return LogLevel.INFO;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ChunkUtilities;
+
+// Strategies ChunkMesh can use to turn voxels into quads
+public enum MeshingMode {
+    PER_FACE, // One quad per exposed voxel face
+    BITMASK, // Same quads as PER_FACE, with face visibility computed on per-column opacity bitmasks
+    GREEDY // Coplanar faces of the same block merged into maximal rectangles
+}
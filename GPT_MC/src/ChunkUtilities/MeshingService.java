@@ -0,0 +1,158 @@
+package ChunkUtilities;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Builds chunk meshes on a pool of worker threads and hands them back to the render thread.
+// requestMesh() snapshots the chunk on the calling thread and queues the CPU work; processUploads() runs once
+// per frame on the GL thread and uploads finished meshes until its time or byte budget is spent.
+// Every request bumps the mesh version of the requested sections, so results built from an older snapshot are dropped.
+// With a MeshCache, workers first look the section's content key up on the GPU and on disk, and only mesh on a miss.
+public class MeshingService {
+    private final ExecutorService workers;
+    private final MeshCache meshCache; // Null = always mesh
+    private final ConcurrentLinkedQueue<MeshData> finished = new ConcurrentLinkedQueue<>(); // Built, waiting for upload
+    private final AtomicInteger pending = new AtomicInteger(); // Requests not yet built or dropped
+
+    // Leaves one core for the render thread
+    public MeshingService() {
+        this(null);
+    }
+
+    public MeshingService(int threadCount) {
+        this(threadCount, null);
+    }
+
+    public MeshingService(MeshCache meshCache) {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), meshCache);
+    }
+
+    public MeshingService(int threadCount, MeshCache meshCache) {
+        this.meshCache = meshCache;
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "chunk-mesher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true); // Never keep the game alive on shutdown
+            thread.setPriority(Thread.NORM_PRIORITY - 1); // Render thread first
+            return thread;
+        });
+    }
+
+    // Queue a rebuild of the chunk's whole mesh
+    public void requestMesh(Chunk chunk) {
+        requestMesh(chunk, (1 << Chunk.SECTION_COUNT) - 1);
+    }
+
+    // Queue a rebuild of the sections set in sectionMask (bit i = section i), sharing one snapshot.
+    // Call from the thread that edits chunks (the render thread).
+    public void requestMesh(Chunk chunk, int sectionMask) {
+        for (int section = 0; section < Chunk.SECTION_COUNT; section++) {
+            if ((sectionMask & (1 << section)) != 0) {
+                chunk.nextMeshVersion(section);
+            }
+        }
+        ChunkSnapshot snapshot = chunk.snapshot(sectionMask);
+        for (int section = 0; section < Chunk.SECTION_COUNT; section++) {
+            if ((sectionMask & (1 << section)) == 0) {
+                continue;
+            }
+            int target = section;
+            pending.incrementAndGet();
+            try {
+                workers.execute(() -> build(snapshot, target));
+            } catch (RejectedExecutionException e) {
+                pending.decrementAndGet(); // Shutting down
+                return;
+            }
+        }
+    }
+
+    private void build(ChunkSnapshot snapshot, int section) {
+        try {
+            if (snapshot.getVersion(section) != snapshot.getChunk().getMeshVersion(section)) {
+                MeshStats.recordDiscard();
+                return; // A newer edit already queued another build
+            }
+            finished.add(meshCache != null ? buildCached(snapshot, section) : ChunkMesher.build(snapshot, section));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to mesh chunk " + snapshot.getChunk().getChunkX() + ", "
+                    + snapshot.getChunk().getChunkY() + ", " + snapshot.getChunk().getChunkZ() + ": " + e);
+            e.printStackTrace();
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    // GPU tier, then disk tier, then a real build (stored to disk for the next start)
+    private MeshData buildCached(ChunkSnapshot snapshot, int section) {
+        MeshKey key = MeshKey.of(snapshot, section, ChunkMesher.getMeshingMode());
+        Chunk chunk = snapshot.getChunk();
+        int version = snapshot.getVersion(section);
+        if (meshCache.isResident(key)) {
+            MeshStats.recordCacheHit(false);
+            MeshData reference = MeshData.cacheReference(chunk, section, version, key);
+            reference.setVisibility(SectionVisibility.compute(snapshot, section)); // Cheap next to meshing
+            return reference;
+        }
+        MeshData data = meshCache.load(key, chunk, section, version);
+        if (data != null) {
+            MeshStats.recordCacheHit(true);
+            data.setVisibility(SectionVisibility.compute(snapshot, section));
+            return data;
+        }
+        MeshStats.recordCacheMiss();
+        data = ChunkMesher.build(snapshot, section);
+        data.setCacheKey(key);
+        meshCache.store(data);
+        return data;
+    }
+
+    // Null if meshes are never cached
+    public MeshCache getMeshCache() {
+        return meshCache;
+    }
+
+    // Upload finished meshes on the GL thread. Stops once either budget is spent, but always uploads at least
+    // one mesh so progress is made even when a single mesh exceeds the budget. Returns the number uploaded.
+    public int processUploads(long budgetNanos, long budgetBytes) {
+        long start = System.nanoTime();
+        long bytes = 0;
+        int uploaded = 0;
+        MeshData data;
+        while ((data = finished.poll()) != null) {
+            try {
+                Chunk chunk = data.getChunk();
+                if (data.getVersion() != chunk.getMeshVersion(data.getSection())) {
+                    MeshStats.recordDiscard(); // Superseded by a newer edit, or the chunk was unloaded
+                    continue;
+                }
+                chunk.applyMesh(data);
+                uploaded++;
+                bytes += data.getByteSize();
+            } finally {
+                data.free();
+            }
+            if (bytes >= budgetBytes || System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        return uploaded;
+    }
+
+    // Meshes requested but not uploaded yet
+    public int getBacklog() {
+        return pending.get() + finished.size();
+    }
+
+    // Stop the workers and free any meshes that were never uploaded
+    public void shutdown() {
+        workers.shutdownNow();
+        MeshData data;
+        while ((data = finished.poll()) != null) {
+            data.free();
+        }
+    }
+}
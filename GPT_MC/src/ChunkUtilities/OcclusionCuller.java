@@ -0,0 +1,156 @@
+package ChunkUtilities;
+
+import java.util.Arrays;
+
+// Cave culling: a breadth-first walk over sections from the one holding the camera, queueing the meshes it
+// reaches. A step from one section to the next is taken only if
+//   - the section was entered through a face that can see the exit face (SectionVisibility),
+//   - the step does not point back towards the camera (no direction is taken after its opposite),
+//   - the next section is loaded, inside the frustum and not reached yet this frame.
+// Sections behind solid ground are never reached, so caves are skipped from the surface and the surface
+// from deep caves. Conservative: open space is only connected, never proven visible. GL thread only.
+public class OcclusionCuller {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int NO_FACE = 7; // Entry face of the camera's section
+    private static final int TOP = Direction.TOP.ordinal();
+    private static final int BOTTOM = Direction.BOTTOM.ordinal();
+
+    private int frame; // Pass number, stamped on reached sections (see Chunk.visitSection)
+
+    // BFS queue: chunk and packed state (section | entry face << 8 | directions taken << 12)
+    private Chunk[] queueChunks = new Chunk[1024];
+    private int[] queueStates = new int[1024];
+    private int queueTail;
+
+    // Last frame
+    private int sectionsVisited;
+    private int sectionsDrawn;
+    private long cullNanos;
+
+    // Queue the meshes reachable from the viewer (position in voxels). A viewer above or below the loaded chunks
+    // looks in through their exposed top or bottom sections. Returns false without queueing anything if the walk
+    // has nowhere to start (viewer beside the loaded area); the caller then falls back to frustum culling alone.
+    public boolean cull(World world, float viewerX, float viewerY, float viewerZ, FrustumCuller frustum, ChunkRenderer renderer) {
+        int y = (int) Math.floor(viewerY);
+        int viewerChunkY = World.toChunkCoord(y);
+        Chunk start = world.getChunk(World.toChunkCoord((int) Math.floor(viewerX)), viewerChunkY,
+                World.toChunkCoord((int) Math.floor(viewerZ)));
+
+        long startNanos = System.nanoTime();
+        frame++;
+        sectionsVisited = 0;
+        sectionsDrawn = 0;
+        queueTail = 0;
+        if (start != null) {
+            int startSection = World.toLocalCoord(y) >> Chunk.SECTION_SHIFT;
+            start.visitSection(startSection, frame);
+            enqueue(start, startSection | (NO_FACE << 8));
+        } else {
+            seedFromOutside(world, viewerChunkY, frustum);
+            if (queueTail == 0) {
+                return false;
+            }
+        }
+
+        for (int head = 0; head < queueTail; head++) {
+            Chunk chunk = queueChunks[head];
+            int state = queueStates[head];
+            queueChunks[head] = null;
+            int section = state & 0xFF;
+            int entry = (state >>> 8) & 7;
+            int taken = state >>> 12;
+            sectionsVisited++;
+
+            ChunkMesh mesh = chunk.getSectionMesh(section);
+            if (mesh != null && mesh.getQuadCount() > 0) {
+                renderer.add(chunk, section, mesh);
+                sectionsDrawn++;
+            }
+
+            long visibility = chunk.getSectionVisibility(section);
+            for (Direction direction : DIRECTIONS) {
+                int exit = direction.ordinal();
+                if ((taken & (1 << (exit ^ 1))) != 0) {
+                    continue; // Would turn back towards the camera
+                }
+                if (entry != NO_FACE && !SectionVisibility.canSee(visibility, entry, exit)) {
+                    continue; // No open path through this section
+                }
+
+                Chunk next = chunk;
+                int nextSection = section;
+                if (exit == TOP && section < Chunk.SECTION_COUNT - 1) {
+                    nextSection = section + 1;
+                } else if (exit == BOTTOM && section > 0) {
+                    nextSection = section - 1;
+                } else {
+                    next = world.getNeighbor(chunk, direction);
+                    if (next == null) {
+                        continue;
+                    }
+                    if (exit == TOP) {
+                        nextSection = 0;
+                    } else if (exit == BOTTOM) {
+                        nextSection = Chunk.SECTION_COUNT - 1;
+                    }
+                }
+                if (!frustum.isSectionVisible(next, nextSection) || !next.visitSection(nextSection, frame)) {
+                    continue;
+                }
+                enqueue(next, nextSection | ((exit ^ 1) << 8) | ((taken | (1 << exit)) << 12));
+            }
+        }
+
+        cullNanos = System.nanoTime() - startNanos;
+        if (MeshStats.isLogEnabled(LogLevel.TRACE)) {
+            MeshStats.log(LogLevel.TRACE, "Occlusion culling: " + sectionsVisited + " sections reached, "
+                    + sectionsDrawn + " drawn, " + (cullNanos / 1000) + " us");
+        }
+        return true;
+    }
+
+    // Start from every exposed top section below the viewer and every exposed bottom section above it,
+    // as if the walk had come in from the open sky (or void) towards them
+    private void seedFromOutside(World world, int viewerChunkY, FrustumCuller frustum) {
+        for (Chunk chunk : world.getChunks()) {
+            int section;
+            int entry;
+            if (chunk.getChunkY() < viewerChunkY && world.getNeighbor(chunk, Direction.TOP) == null) {
+                section = Chunk.SECTION_COUNT - 1;
+                entry = TOP;
+            } else if (chunk.getChunkY() > viewerChunkY && world.getNeighbor(chunk, Direction.BOTTOM) == null) {
+                section = 0;
+                entry = BOTTOM;
+            } else {
+                continue;
+            }
+            if (frustum.isSectionVisible(chunk, section) && chunk.visitSection(section, frame)) {
+                enqueue(chunk, section | (entry << 8) | ((1 << (entry ^ 1)) << 12)); // Moving away from the viewer
+            }
+        }
+    }
+
+    private void enqueue(Chunk chunk, int state) {
+        if (queueTail == queueChunks.length) {
+            queueChunks = Arrays.copyOf(queueChunks, queueTail * 2);
+            queueStates = Arrays.copyOf(queueStates, queueTail * 2);
+        }
+        queueChunks[queueTail] = chunk;
+        queueStates[queueTail] = state;
+        queueTail++;
+    }
+
+    // Sections the last pass walked through (drawn or not)
+    public int getSectionsVisited() {
+        return sectionsVisited;
+    }
+
+    public int getSectionsDrawn() {
+        return sectionsDrawn;
+    }
+
+    // Time the last cull() took, in nanoseconds
+    public long getCullNanos() {
+        return cullNanos;
+    }
+}
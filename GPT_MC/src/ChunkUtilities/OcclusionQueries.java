@@ -0,0 +1,283 @@
+package ChunkUtilities;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+// Optional GPU occlusion pass with one frame of latency. After the terrain is drawn, the bounding box of every
+// section the CPU culling let through is drawn with depth writes off inside an occlusion query. Next frame the
+// renderer skips sections whose last finished query passed no samples. Results are only read once
+// GL_QUERY_RESULT_AVAILABLE says so; until then a section keeps its previous state, so nothing ever waits
+// on the GPU. Uses GL_ANY_SAMPLES_PASSED (GL 3.3 / ARB_occlusion_query2, e.g. Mesa llvmpipe) and falls back to
+// GL_SAMPLES_PASSED. A section becoming visible shows up one frame late. GL thread only.
+public class OcclusionQueries {
+    private static final int MAX_QUERIES_PER_FRAME = 4096; // Boxes drawn per frame; sections past it are drawn
+    private static final int STALE_FRAMES = 120; // Queries of sections not seen for this long are deleted
+    private static final int BOX_CORNERS = 8;
+    private static final int BOX_INDICES = 36;
+
+    private final int queryTarget;
+    private final int vaoID;
+    private final int vboID;
+    private final int eboID;
+    private FloatBuffer corners = MemoryUtil.memAllocFloat(256 * BOX_CORNERS * 3);
+
+    private final IdentityHashMap<Chunk, SectionQuery[]> queries = new IdentityHashMap<>();
+    private SectionQuery[] candidates = new SectionQuery[256]; // Sections to query this frame
+    private Chunk[] candidateChunks = new Chunk[256];
+    private int candidateCount;
+
+    private int frame;
+    private int viewerX, viewerY, viewerZ; // In voxels
+
+    // Last frame
+    private int sectionsOccluded; // Skipped: their last query passed no samples
+    private int sectionsVisible; // Drawn
+    private int queriesIssued;
+
+    private static final class SectionQuery {
+        final int section;
+        int queryID;
+        boolean pending; // Issued, result not read yet
+        boolean occluded; // Result of the last finished query
+        int lastFrame; // Last frame the section was a draw candidate
+
+        SectionQuery(int section) {
+            this.section = section;
+        }
+    }
+
+    public OcclusionQueries() {
+        GLCapabilities caps = GL.getCapabilities();
+        queryTarget = caps.OpenGL33 || caps.GL_ARB_occlusion_query2 ? GL33.GL_ANY_SAMPLES_PASSED : GL15.GL_SAMPLES_PASSED;
+
+        // Unit box indices, shared by every box: corner i has x = bit 0, y = bit 1, z = bit 2
+        ByteBuffer indices = MemoryUtil.memAlloc(BOX_INDICES);
+        indices.put(new byte[] {
+            0, 2, 3, 0, 3, 1, // -Z
+            4, 5, 7, 4, 7, 6, // +Z
+            0, 4, 6, 0, 6, 2, // -X
+            1, 3, 7, 1, 7, 5, // +X
+            0, 1, 5, 0, 5, 4, // -Y
+            2, 6, 7, 2, 7, 3 // +Y
+        }).flip();
+
+        vaoID = GL30.glGenVertexArrays();
+        GL30.glBindVertexArray(vaoID);
+        vboID = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboID);
+        GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, 3 * Float.BYTES, 0L);
+        GL20.glEnableVertexAttribArray(0);
+        eboID = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, eboID);
+        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, indices, GL15.GL_STATIC_DRAW);
+        GL30.glBindVertexArray(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        MemoryUtil.memFree(indices);
+
+        MeshStats.log(LogLevel.INFO, "Occlusion queries: "
+                + (queryTarget == GL33.GL_ANY_SAMPLES_PASSED ? "GL_ANY_SAMPLES_PASSED" : "GL_SAMPLES_PASSED"));
+    }
+
+    // Start a frame (viewer position in voxels)
+    public void begin(float x, float y, float z) {
+        frame++;
+        candidateCount = 0;
+        sectionsOccluded = 0;
+        sectionsVisible = 0;
+        queriesIssued = 0;
+        viewerX = (int) Math.floor(x);
+        viewerY = (int) Math.floor(y);
+        viewerZ = (int) Math.floor(z);
+        if ((frame & 63) == 0) {
+            deleteStaleQueries();
+        }
+    }
+
+    // Whether a section that passed CPU culling should be drawn this frame (never waits for the GPU)
+    public boolean isVisible(Chunk chunk, int section) {
+        SectionQuery[] sections = queries.get(chunk);
+        if (sections == null) {
+            sections = new SectionQuery[Chunk.SECTION_COUNT];
+            queries.put(chunk, sections);
+        }
+        SectionQuery query = sections[section];
+        if (query == null) {
+            query = new SectionQuery(section);
+            sections[section] = query;
+        }
+        query.lastFrame = frame;
+
+        if (containsViewer(chunk, section)) {
+            query.occluded = false; // A box around the camera would be clipped away: always draw it
+        } else {
+            if (query.pending && GL15.glGetQueryObjecti(query.queryID, GL15.GL_QUERY_RESULT_AVAILABLE) != 0) {
+                query.occluded = GL15.glGetQueryObjecti(query.queryID, GL15.GL_QUERY_RESULT) == 0;
+                query.pending = false;
+            }
+            if (!query.pending && !addCandidate(chunk, query)) { // Test it again against this frame's depth
+                query.occluded = false; // Over this frame's query budget: draw it rather than trust an old result
+            }
+        }
+
+        if (query.occluded) {
+            sectionsOccluded++;
+            return false;
+        }
+        sectionsVisible++;
+        return true;
+    }
+
+    // The viewer inside the section box grown by one voxel (near-plane clipping would hide the box)
+    private boolean containsViewer(Chunk chunk, int section) {
+        int x = chunk.getChunkX() << Chunk.CHUNK_SHIFT;
+        int y = (chunk.getChunkY() << Chunk.CHUNK_SHIFT) + (section << Chunk.SECTION_SHIFT);
+        int z = chunk.getChunkZ() << Chunk.CHUNK_SHIFT;
+        return viewerX >= x - 1 && viewerX <= x + Chunk.CHUNK_SIZE
+                && viewerY >= y - 1 && viewerY <= y + Chunk.SECTION_HEIGHT
+                && viewerZ >= z - 1 && viewerZ <= z + Chunk.CHUNK_SIZE;
+    }
+
+    // False when this frame already has MAX_QUERIES_PER_FRAME candidates
+    private boolean addCandidate(Chunk chunk, SectionQuery query) {
+        if (candidateCount == MAX_QUERIES_PER_FRAME) {
+            return false;
+        }
+        if (candidateCount == candidates.length) {
+            candidates = Arrays.copyOf(candidates, candidateCount * 2);
+            candidateChunks = Arrays.copyOf(candidateChunks, candidateCount * 2);
+        }
+        candidates[candidateCount] = query;
+        candidateChunks[candidateCount] = chunk;
+        candidateCount++;
+        return true;
+    }
+
+    // Draw this frame's candidate boxes inside queries, against the depth buffer the terrain just wrote.
+    // Boxes are placed relative to origin (in voxels), like the terrain; the box shader (occlusion_box_*.glsl,
+    // with the terrain's view and projection) must be in use.
+    public void issue(float voxelSize, int originX, int originY, int originZ) {
+        queriesIssued = candidateCount;
+        MeshStats.recordOcclusion(queriesIssued, sectionsOccluded, sectionsVisible);
+        if (MeshStats.isLogEnabled(LogLevel.TRACE)) {
+            MeshStats.log(LogLevel.TRACE, "Occlusion queries: " + sectionsOccluded + " sections occluded, "
+                    + sectionsVisible + " drawn, " + queriesIssued + " queries issued");
+        }
+        if (candidateCount == 0) {
+            return;
+        }
+        if (corners.capacity() < candidateCount * BOX_CORNERS * 3) {
+            corners = MemoryUtil.memRealloc(corners, candidateCount * BOX_CORNERS * 3 * 2);
+        }
+        corners.clear();
+        for (int i = 0; i < candidateCount; i++) {
+            Chunk chunk = candidateChunks[i];
+            float x = ((chunk.getChunkX() << Chunk.CHUNK_SHIFT) - originX) * voxelSize;
+            float y = ((chunk.getChunkY() << Chunk.CHUNK_SHIFT) + (candidates[i].section << Chunk.SECTION_SHIFT) - originY) * voxelSize;
+            float z = ((chunk.getChunkZ() << Chunk.CHUNK_SHIFT) - originZ) * voxelSize;
+            float size = Chunk.CHUNK_SIZE * voxelSize;
+            float height = Chunk.SECTION_HEIGHT * voxelSize;
+            for (int corner = 0; corner < BOX_CORNERS; corner++) {
+                corners.put((corner & 1) != 0 ? x + size : x);
+                corners.put((corner & 2) != 0 ? y + height : y);
+                corners.put((corner & 4) != 0 ? z + size : z);
+            }
+        }
+        corners.flip();
+
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboID);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, corners, GL15.GL_STREAM_DRAW); // Orphans last frame's boxes
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
+        // Depth test only: equal depth counts as visible, so boxes flush with drawn terrain are kept
+        GL11.glColorMask(false, false, false, false);
+        GL11.glDepthMask(false);
+        GL11.glEnable(GL11.GL_DEPTH_TEST);
+        GL11.glDepthFunc(GL11.GL_LEQUAL);
+        GL11.glDisable(GL11.GL_CULL_FACE);
+        GL30.glBindVertexArray(vaoID);
+        for (int i = 0; i < candidateCount; i++) {
+            SectionQuery query = candidates[i];
+            if (query.queryID == 0) {
+                query.queryID = GL15.glGenQueries();
+            }
+            GL15.glBeginQuery(queryTarget, query.queryID);
+            GL32.glDrawElementsBaseVertex(GL11.GL_TRIANGLES, BOX_INDICES, GL11.GL_UNSIGNED_BYTE, 0L, i * BOX_CORNERS);
+            GL15.glEndQuery(queryTarget);
+            query.pending = true;
+            candidates[i] = null;
+            candidateChunks[i] = null;
+        }
+        GL30.glBindVertexArray(0);
+        GL11.glDepthFunc(GL11.GL_LESS);
+        GL11.glDepthMask(true);
+        GL11.glColorMask(true, true, true, true);
+        candidateCount = 0;
+    }
+
+    // Delete the queries of sections that have not been draw candidates for a while (unloaded or long culled)
+    private void deleteStaleQueries() {
+        Iterator<SectionQuery[]> it = queries.values().iterator();
+        while (it.hasNext()) {
+            SectionQuery[] sections = it.next();
+            boolean live = false;
+            for (int section = 0; section < sections.length; section++) {
+                SectionQuery query = sections[section];
+                if (query == null) {
+                    continue;
+                }
+                if (frame - query.lastFrame > STALE_FRAMES) {
+                    if (query.queryID != 0) {
+                        GL15.glDeleteQueries(query.queryID);
+                    }
+                    sections[section] = null;
+                } else {
+                    live = true;
+                }
+            }
+            if (!live) {
+                it.remove();
+            }
+        }
+    }
+
+    // Sections skipped last frame because their box was hidden
+    public int getSectionsOccluded() {
+        return sectionsOccluded;
+    }
+
+    public int getSectionsVisible() {
+        return sectionsVisible;
+    }
+
+    public int getQueriesIssued() {
+        return queriesIssued;
+    }
+
+    public void cleanup() {
+        for (SectionQuery[] sections : queries.values()) {
+            for (SectionQuery query : sections) {
+                if (query != null && query.queryID != 0) {
+                    GL15.glDeleteQueries(query.queryID);
+                }
+            }
+        }
+        queries.clear();
+        GL15.glDeleteBuffers(vboID);
+        GL15.glDeleteBuffers(eboID);
+        GL30.glDeleteVertexArrays(vaoID);
+        MemoryUtil.memFree(corners);
+    }
+}
@@ -0,0 +1,186 @@
+package ChunkUtilities;
+
+import java.util.Arrays;
+
+// Palette-compressed storage for the block IDs of a chunk section.
+// Each cell stores an index into a small palette of block IDs instead of a Voxel object.
+// The indices are bit-packed into a long[] and widen (1, 2, 4, 8, 16 bits) as the palette grows.
+// While every cell holds the same block the storage is "uniform": 0 bits per entry and no index array at all.
+public class PaletteStorage {
+    private static final int MAX_BITS = 16; // Enough for every block ID the game can register
+
+    private final int size; // Number of cells stored
+
+    private int[] palette; // Palette index -> block ID
+    private int paletteSize; // Number of palette entries in use
+
+    private int bitsPerEntry; // Width of one packed index (0 while uniform, otherwise a power of two)
+    private int entriesPerLongShift; // log2(64 / bitsPerEntry)
+    private long entryMask; // Mask for one packed index
+    private long[] data; // Packed palette indices (null while uniform)
+
+    public PaletteStorage(int size, int initialBlockID) {
+        this.size = size;
+        this.palette = new int[2];
+        this.palette[0] = initialBlockID;
+        this.paletteSize = 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getBitsPerEntry() {
+        return bitsPerEntry;
+    }
+
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+
+    // True while every cell holds the same block and no index array is allocated
+    public boolean isUniform() {
+        return data == null;
+    }
+
+    // The block ID shared by every cell of a uniform storage
+    public int getUniformBlockID() {
+        return palette[0];
+    }
+
+    // Read the block ID stored at a linear cell index
+    public int get(int index) {
+        if (data == null) {
+            return palette[0];
+        }
+        return palette[getPaletteIndex(index)];
+    }
+
+    // Write a block ID at a linear cell index, growing the palette if the ID is new
+    public void set(int index, int blockID) {
+        if (data == null && palette[0] == blockID) {
+            return; // Writing the uniform block keeps the storage uniform
+        }
+        int paletteIndex = indexOf(blockID);
+        if (paletteIndex < 0) {
+            paletteIndex = addToPalette(blockID);
+        }
+        setPaletteIndex(index, paletteIndex);
+    }
+
+    // Fill every cell with a single block ID and drop back to the uniform representation
+    public void fill(int blockID) {
+        palette[0] = blockID;
+        paletteSize = 1;
+        bitsPerEntry = 0;
+        data = null;
+    }
+
+    // Independent copy of this storage (used for immutable chunk snapshots)
+    public PaletteStorage copy() {
+        PaletteStorage copy = new PaletteStorage(size, palette[0]);
+        copy.palette = Arrays.copyOf(palette, palette.length);
+        copy.paletteSize = paletteSize;
+        copy.bitsPerEntry = bitsPerEntry;
+        copy.entriesPerLongShift = entriesPerLongShift;
+        copy.entryMask = entryMask;
+        copy.data = data != null ? Arrays.copyOf(data, data.length) : null;
+        return copy;
+    }
+
+    // Approximate heap footprint of this storage in bytes (used for memory reporting)
+    public long getMemoryUsage() {
+        return 16L + (data != null ? 8L * data.length : 0L) + 4L * palette.length;
+    }
+
+    private int getPaletteIndex(int index) {
+        int shift = entriesPerLongShift;
+        long word = data[index >>> shift];
+        int bitOffset = (index & ((1 << shift) - 1)) * bitsPerEntry;
+        return (int) ((word >>> bitOffset) & entryMask);
+    }
+
+    private void setPaletteIndex(int index, int paletteIndex) {
+        int shift = entriesPerLongShift;
+        int wordIndex = index >>> shift;
+        int bitOffset = (index & ((1 << shift) - 1)) * bitsPerEntry;
+        data[wordIndex] = (data[wordIndex] & ~(entryMask << bitOffset)) | ((long) paletteIndex << bitOffset);
+    }
+
+    private int indexOf(int blockID) {
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == blockID) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int addToPalette(int blockID) {
+        if (paletteSize == (1 << bitsPerEntry)) {
+            // Drop palette entries no cell refers to anymore before paying for a wider index
+            compact();
+            if (paletteSize == (1 << bitsPerEntry)) {
+                if (bitsPerEntry == MAX_BITS) {
+                    throw new IllegalStateException("Chunk palette overflow for blockID: " + blockID);
+                }
+                resize(bitsPerEntry == 0 ? 1 : bitsPerEntry << 1);
+            }
+        }
+        if (paletteSize == palette.length) {
+            palette = Arrays.copyOf(palette, Math.min(palette.length << 1, 1 << MAX_BITS));
+        }
+        palette[paletteSize] = blockID;
+        return paletteSize++;
+    }
+
+    // Re-pack every cell with a new index width
+    private void resize(int newBits) {
+        long[] oldData = data;
+        int oldBits = bitsPerEntry;
+        int oldShift = entriesPerLongShift;
+        long oldMask = entryMask;
+
+        bitsPerEntry = newBits;
+        entriesPerLongShift = Integer.numberOfTrailingZeros(64 / newBits);
+        entryMask = (1L << newBits) - 1;
+        data = new long[(size + (1 << entriesPerLongShift) - 1) >>> entriesPerLongShift];
+
+        if (oldData == null) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            long word = oldData[i >>> oldShift];
+            int bitOffset = (i & ((1 << oldShift) - 1)) * oldBits;
+            setPaletteIndex(i, (int) ((word >>> bitOffset) & oldMask));
+        }
+    }
+
+    // Remove unused palette entries and remap the packed indices
+    private void compact() {
+        if (data == null) {
+            return; // A uniform storage only has the one entry it uses
+        }
+        boolean[] used = new boolean[paletteSize];
+        for (int i = 0; i < size; i++) {
+            used[getPaletteIndex(i)] = true;
+        }
+
+        int[] remap = new int[paletteSize];
+        int newSize = 0;
+        for (int i = 0; i < paletteSize; i++) {
+            if (used[i]) {
+                palette[newSize] = palette[i];
+                remap[i] = newSize++;
+            }
+        }
+        if (newSize == paletteSize) {
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            setPaletteIndex(i, remap[getPaletteIndex(i)]);
+        }
+        paletteSize = newSize;
+    }
+}
@@ -0,0 +1,78 @@
+package ChunkUtilities;
+
+import java.nio.ShortBuffer;
+
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.system.MemoryUtil;
+
+// The one index buffer every chunk mesh is drawn with. Meshes are lists of quads (4 consecutive vertices each),
+// so their indices are always the same pattern: quad q is 4q+0, 4q+1, 4q+2, 4q+2, 4q+3, 4q+0. Instead of meshing
+// and uploading that per section, this buffer holds it once, as unsigned shorts, and every draw uses it with the
+// mesh's first vertex as base vertex. 16-bit indices reach MAX_QUADS_PER_DRAW quads; larger meshes are drawn in
+// several commands (see ChunkRenderer). Grows on demand up to that size. GL thread only.
+public class QuadIndexBuffer {
+    public static final int MAX_QUADS_PER_DRAW = 0x10000 / MeshBuilder.VERTICES_PER_QUAD; // 65536 vertices
+    private static final int INITIAL_QUADS = 4096; // 48 KB, enough for most sections
+
+    private int bufferID;
+    private int quadCapacity;
+
+    public QuadIndexBuffer() {
+        bufferID = GL15.glGenBuffers();
+        fill(INITIAL_QUADS);
+    }
+
+    // Make room for meshes of this many quads (clamped to one draw)
+    public void ensureCapacity(int quads) {
+        quads = Math.min(quads, MAX_QUADS_PER_DRAW);
+        if (quads <= quadCapacity) {
+            return;
+        }
+        int capacity = quadCapacity;
+        while (capacity < quads) {
+            capacity <<= 1;
+        }
+        fill(Math.min(capacity, MAX_QUADS_PER_DRAW));
+        MeshStats.log(LogLevel.DEBUG, "Quad index buffer grown to " + quadCapacity + " quads");
+    }
+
+    // Respecify the buffer with the pattern for this many quads. The buffer keeps its name, so VAOs that use it
+    // as their element buffer see the new storage without being touched.
+    private void fill(int quads) {
+        ShortBuffer indices = MemoryUtil.memAllocShort(quads * MeshBuilder.INDICES_PER_QUAD);
+        for (int quad = 0; quad < quads; quad++) {
+            int base = quad * MeshBuilder.VERTICES_PER_QUAD;
+            indices.put((short) base);
+            indices.put((short) (base + 1));
+            indices.put((short) (base + 2));
+            indices.put((short) (base + 2));
+            indices.put((short) (base + 3));
+            indices.put((short) base);
+        }
+        indices.flip();
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, bufferID); // Not through a VAO's element binding
+        GL15.glBufferData(GL31.GL_COPY_WRITE_BUFFER, indices, GL15.GL_STATIC_DRAW);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+        MemoryUtil.memFree(indices);
+        quadCapacity = quads;
+    }
+
+    public int getBufferID() {
+        return bufferID;
+    }
+
+    public int getQuadCapacity() {
+        return quadCapacity;
+    }
+
+    // GPU memory used by the shared indices
+    public long getByteSize() {
+        return (long) quadCapacity * MeshBuilder.INDICES_PER_QUAD * Short.BYTES;
+    }
+
+    public void cleanup() {
+        GL15.glDeleteBuffers(bufferID);
+        bufferID = 0;
+    }
+}
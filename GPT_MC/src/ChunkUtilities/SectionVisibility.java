@@ -0,0 +1,109 @@
+package ChunkUtilities;
+
+import java.util.Arrays;
+
+import Block_Entities.BlockRegistry;
+
+// Which faces of a section can see each other through its non-solid voxels, found with a flood fill.
+// The result is a 36-bit set: bit (from * 6 + to) is set when some open region touches both faces, with
+// faces numbered by Direction ordinal (the opposite of face f is f ^ 1). Computed on the mesher threads
+// next to the mesh; OcclusionCuller walks the sections through these connections.
+public class SectionVisibility {
+    public static final int FACE_COUNT = 6;
+    public static final long NONE = 0L;
+    public static final long ALL = (1L << (FACE_COUNT * FACE_COUNT)) - 1; // Every face sees every face
+
+    private static final int ROWS = Chunk.SECTION_HEIGHT;
+    private static final int SIZE = Chunk.CHUNK_SIZE;
+    private static final int SHIFT = Chunk.CHUNK_SHIFT;
+
+    private static final int LEFT = Direction.LEFT.ordinal();
+    private static final int RIGHT = Direction.RIGHT.ordinal();
+    private static final int TOP = Direction.TOP.ordinal();
+    private static final int BOTTOM = Direction.BOTTOM.ordinal();
+    private static final int FRONT = Direction.FRONT.ordinal();
+    private static final int BACK = Direction.BACK.ordinal();
+
+    // Flood fill scratch, reused per thread
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private static final class Scratch {
+        final int[] queue = new int[Chunk.SECTION_VOLUME];
+        final long[] visited = new long[Chunk.SECTION_VOLUME >> 6];
+    }
+
+    // Whether a section with this visibility lets a viewer entering through one face look out of another
+    public static boolean canSee(long visibility, int from, int to) {
+        return ((visibility >>> (from * FACE_COUNT + to)) & 1L) != 0;
+    }
+
+    public static long compute(ChunkSnapshot chunk, int section) {
+        if (chunk.isSectionUniform(section)) {
+            return BlockRegistry.isSolid(chunk.getSectionUniformBlockID(section)) ? NONE : ALL;
+        }
+
+        Scratch scratch = SCRATCH.get();
+        long[] visited = scratch.visited;
+        int[] queue = scratch.queue;
+        Arrays.fill(visited, 0L);
+        int base = section << Chunk.SECTION_VOLUME_SHIFT; // Section-local index + base = chunk index
+        long visibility = NONE;
+
+        // Solid voxels count as visited, so the fill only walks open space
+        for (int i = 0; i < Chunk.SECTION_VOLUME; i++) {
+            if (BlockRegistry.isSolid(chunk.getBlockIDAt(base + i))) {
+                visited[i >>> 6] |= 1L << i;
+            }
+        }
+
+        for (int start = 0; start < Chunk.SECTION_VOLUME; start++) {
+            if ((visited[start >>> 6] & (1L << start)) != 0) {
+                continue;
+            }
+            // Flood one open region and note the faces it touches
+            visited[start >>> 6] |= 1L << start;
+            queue[0] = start;
+            int head = 0;
+            int tail = 1;
+            int faces = 0;
+            while (head < tail) {
+                int index = queue[head++];
+                int row = index >>> (2 * SHIFT);
+                int x = (index >>> SHIFT) & (SIZE - 1);
+                int z = index & (SIZE - 1);
+
+                if (x == 0) faces |= 1 << LEFT; else tail = visit(index - SIZE, visited, queue, tail);
+                if (x == SIZE - 1) faces |= 1 << RIGHT; else tail = visit(index + SIZE, visited, queue, tail);
+                if (row == 0) faces |= 1 << BOTTOM; else tail = visit(index - SIZE * SIZE, visited, queue, tail);
+                if (row == ROWS - 1) faces |= 1 << TOP; else tail = visit(index + SIZE * SIZE, visited, queue, tail);
+                if (z == 0) faces |= 1 << BACK; else tail = visit(index - 1, visited, queue, tail);
+                if (z == SIZE - 1) faces |= 1 << FRONT; else tail = visit(index + 1, visited, queue, tail);
+            }
+            visibility |= connect(faces);
+            if (visibility == ALL) {
+                break; // Nothing left to learn
+            }
+        }
+        return visibility;
+    }
+
+    private static int visit(int index, long[] visited, int[] queue, int tail) {
+        long bit = 1L << index;
+        if ((visited[index >>> 6] & bit) == 0) {
+            visited[index >>> 6] |= bit;
+            queue[tail++] = index;
+        }
+        return tail;
+    }
+
+    // Every pair of faces in the mask sees each other
+    private static long connect(int faces) {
+        long visibility = NONE;
+        for (int from = 0; from < FACE_COUNT; from++) {
+            if ((faces & (1 << from)) != 0) {
+                visibility |= (long) faces << (from * FACE_COUNT);
+            }
+        }
+        return visibility;
+    }
+}
@@ -1,94 +1,228 @@
-package ChunkUtilities;
-
-import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
-import java.util.HashMap;
-import java.util.Map;
-
-import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL30;
-import org.lwjgl.stb.STBImage;
-import org.lwjgl.system.MemoryStack;
-
-public class TextureLoader {
-    // Store already loaded textures and their coordinates
-    private static final Map<String, Integer> loadedTextures = new HashMap<>();
-    private static final Map<Integer, float[]> textureCoordinates = new HashMap<>(); // Store texture coordinates
-
-    // Path to the missing texture image
-    private static final String MISSING_TEXTURE_PATH = "res/textures/MissingTexture.png"; // Replace with your actual missing texture file path
-
-    public static int loadTexture(String filePath) {
-        // Check if the texture has already been loaded
-        if (loadedTextures.containsKey(filePath)) {
-            return loadedTextures.get(filePath);
-        }
-
-        int textureID = GL11.glGenTextures();
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureID);
-
-        // Set texture parameters to avoid blurring
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST); // Use GL_NEAREST for minifying
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST); // Use GL_NEAREST for magnification
-
-        // Load texture
-        boolean loadedSuccessfully = loadTextureFile(filePath, textureID);
-
-        // If loading the specified texture failed, attempt to load the missing texture
-        if (!loadedSuccessfully) {
-            System.err.println("Failed to load texture: " + filePath + ". Loading missing texture.");
-            loadedSuccessfully = loadTextureFile(MISSING_TEXTURE_PATH, textureID);
-            
-            if (!loadedSuccessfully) {
-                // If the missing texture also failed to load, return an invalid texture ID
-                System.err.println("Failed to load missing texture: " + MISSING_TEXTURE_PATH);
-                return -1;
-            }
-        }
-
-        // Store the texture ID to avoid reloading the same texture
-        loadedTextures.put(filePath, textureID);
-
-        // Assign default texture coordinates for this texture (this can be modified for atlas usage)
-        textureCoordinates.put(textureID, new float[]{
-            0.0f, 0.0f, // Bottom-left
-            1.0f, 0.0f, // Bottom-right
-            1.0f, 1.0f, // Top-right
-            0.0f, 1.0f  // Top-left
-        });
-
-        System.out.println("Texture Loaded Successfully: " + filePath + " with ID: " + textureID);
-        return textureID;
-    }
-
-    // Load texture from file and bind it to the texture ID
-    private static boolean loadTextureFile(String filePath, int textureID) {
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            IntBuffer width = stack.mallocInt(1);
-            IntBuffer height = stack.mallocInt(1);
-            IntBuffer channels = stack.mallocInt(1);
-
-            ByteBuffer image = STBImage.stbi_load(filePath, width, height, channels, 4);
-            if (image != null) {
-                GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, width.get(), height.get(), 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, image);
-                GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
-                STBImage.stbi_image_free(image);
-                return true; // Texture loaded successfully
-            } else {
-                return false; // Texture loading failed
-            }
-        }
-    }
-
-    // Get texture coordinates for the given texture ID
-    public static float[] getTextureCoords(int textureID) {
-        return textureCoordinates.getOrDefault(textureID, new float[]{
-            0.0f, 0.0f, // Bottom-left
-            1.0f, 0.0f, // Bottom-right
-            1.0f, 1.0f, // Top-right
-            0.0f, 1.0f  // Top-left
-        });
-    }
-}
+package ChunkUtilities;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
+import Block_Entities.BlockRegistry;
+
+public class TextureLoader {
+    // Store already loaded textures and their coordinates
+    private static final Map<String, Integer> loadedTextures = new HashMap<>();
+    private static final Map<Integer, float[]> textureCoordinates = new HashMap<>(); // Store texture coordinates
+
+    // Every block texture in one GL_TEXTURE_2D_ARRAY: layer = BlockRegistry texture index, plus a last layer
+    // with the missing texture. Chunk vertices carry the layer, so a whole mesh draws with one bind.
+    private static int textureArrayID; // 0 = not built
+    private static int missingTextureLayer;
+
+    // Path to the missing texture image
+    private static final String MISSING_TEXTURE_PATH = "res/textures/MissingTexture.png"; // Replace with your actual missing texture file path
+
+    // Build the block texture array from the loaded BlockRegistry (call once on the GL thread, after the registry).
+    // Every layer takes the size of the first texture that loads; textures of another size are scaled to it.
+    public static int buildTextureArray() {
+        deleteTextureArray();
+        int textureCount = BlockRegistry.getTextureCount();
+        missingTextureLayer = textureCount;
+
+        // Decode everything first: the array's size comes from the images
+        ByteBuffer[] images = new ByteBuffer[textureCount + 1];
+        int[] widths = new int[textureCount + 1];
+        int[] heights = new int[textureCount + 1];
+        int width = 0;
+        int height = 0;
+        for (int layer = 0; layer <= textureCount; layer++) {
+            String path = layer < textureCount ? BlockRegistry.getTexturePath(layer) : MISSING_TEXTURE_PATH;
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                IntBuffer w = stack.mallocInt(1);
+                IntBuffer h = stack.mallocInt(1);
+                IntBuffer channels = stack.mallocInt(1);
+                images[layer] = STBImage.stbi_load(path, w, h, channels, 4);
+                widths[layer] = w.get(0);
+                heights[layer] = h.get(0);
+            }
+            if (images[layer] == null) {
+                System.err.println("Failed to load texture: " + path + ". Using the missing texture layer.");
+            } else if (width == 0) {
+                width = widths[layer];
+                height = heights[layer];
+            }
+        }
+        if (width == 0) {
+            width = 16; // Nothing loaded at all: layers get the built-in checkerboard
+            height = 16;
+        }
+
+        textureArrayID = GL11.glGenTextures();
+        GL11.glBindTexture(GL30.GL_TEXTURE_2D_ARRAY, textureArrayID);
+        GL12.glTexImage3D(GL30.GL_TEXTURE_2D_ARRAY, 0, GL11.GL_RGBA8, width, height, textureCount + 1, 0,
+                GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+
+        ByteBuffer layerPixels = MemoryUtil.memAlloc(width * height * 4);
+        ByteBuffer missingPixels = images[textureCount]; // Stand-in for textures that failed to load
+        try {
+            for (int layer = 0; layer <= textureCount; layer++) {
+                ByteBuffer source = images[layer];
+                int sourceWidth = widths[layer];
+                int sourceHeight = heights[layer];
+                if (source == null && missingPixels != null) {
+                    source = missingPixels;
+                    sourceWidth = widths[textureCount];
+                    sourceHeight = heights[textureCount];
+                }
+                if (source == null) {
+                    fillCheckerboard(layerPixels, width, height);
+                } else {
+                    scaleNearest(source, sourceWidth, sourceHeight, layerPixels, width, height);
+                }
+                GL12.glTexSubImage3D(GL30.GL_TEXTURE_2D_ARRAY, 0, 0, 0, layer, width, height, 1,
+                        GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, layerPixels);
+            }
+        } finally {
+            MemoryUtil.memFree(layerPixels);
+            for (ByteBuffer image : images) {
+                if (image != null) {
+                    STBImage.stbi_image_free(image);
+                }
+            }
+        }
+
+        // Same sampling as the single textures: repeat for tiled quads, nearest for crisp pixels
+        GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
+        GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
+        GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+        GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+        GL30.glGenerateMipmap(GL30.GL_TEXTURE_2D_ARRAY);
+        GL11.glBindTexture(GL30.GL_TEXTURE_2D_ARRAY, 0);
+
+        System.out.println("Texture array built: " + (textureCount + 1) + " layers of " + width + "x" + height);
+        return textureArrayID;
+    }
+
+    // Copy RGBA pixels into a target size (nearest neighbor, which keeps pixel-art textures sharp)
+    private static void scaleNearest(ByteBuffer source, int sourceWidth, int sourceHeight, ByteBuffer target, int width, int height) {
+        for (int y = 0; y < height; y++) {
+            int sy = y * sourceHeight / height;
+            for (int x = 0; x < width; x++) {
+                int sx = x * sourceWidth / width;
+                target.putInt((y * width + x) * 4, source.getInt((sy * sourceWidth + sx) * 4));
+            }
+        }
+    }
+
+    // Magenta and black checkerboard, for when even the missing texture cannot be loaded
+    private static void fillCheckerboard(ByteBuffer target, int width, int height) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean magenta = ((x * 2 / width) + (y * 2 / height)) % 2 == 0;
+                int offset = (y * width + x) * 4;
+                target.put(offset, (byte) (magenta ? 255 : 0));
+                target.put(offset + 1, (byte) 0);
+                target.put(offset + 2, (byte) (magenta ? 255 : 0));
+                target.put(offset + 3, (byte) 255);
+            }
+        }
+    }
+
+    // Bind the block texture array to a texture unit
+    public static void bindTextureArray(int unit) {
+        GL13.glActiveTexture(GL13.GL_TEXTURE0 + unit);
+        GL11.glBindTexture(GL30.GL_TEXTURE_2D_ARRAY, textureArrayID);
+    }
+
+    // Layer used for faces without a texture (NO_TEXTURE packs as 0xFFFF, clamped to this layer in the shader)
+    public static int getMissingTextureLayer() {
+        return missingTextureLayer;
+    }
+
+    public static void deleteTextureArray() {
+        if (textureArrayID != 0) {
+            GL11.glDeleteTextures(textureArrayID);
+            textureArrayID = 0;
+        }
+    }
+
+    public static int loadTexture(String filePath) {
+        // Check if the texture has already been loaded
+        if (loadedTextures.containsKey(filePath)) {
+            return loadedTextures.get(filePath);
+        }
+
+        int textureID = GL11.glGenTextures();
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureID);
+
+        // Set texture parameters to avoid blurring
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST); // Use GL_NEAREST for minifying
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST); // Use GL_NEAREST for magnification
+
+        // Load texture
+        boolean loadedSuccessfully = loadTextureFile(filePath, textureID);
+
+        // If loading the specified texture failed, attempt to load the missing texture
+        if (!loadedSuccessfully) {
+            System.err.println("Failed to load texture: " + filePath + ". Loading missing texture.");
+            loadedSuccessfully = loadTextureFile(MISSING_TEXTURE_PATH, textureID);
+            
+            if (!loadedSuccessfully) {
+                // If the missing texture also failed to load, return an invalid texture ID
+                System.err.println("Failed to load missing texture: " + MISSING_TEXTURE_PATH);
+                return -1;
+            }
+        }
+
+        // Store the texture ID to avoid reloading the same texture
+        loadedTextures.put(filePath, textureID);
+
+        // Assign default texture coordinates for this texture (this can be modified for atlas usage)
+        textureCoordinates.put(textureID, new float[]{
+            0.0f, 0.0f, // Bottom-left
+            1.0f, 0.0f, // Bottom-right
+            1.0f, 1.0f, // Top-right
+            0.0f, 1.0f  // Top-left
+        });
+
+        System.out.println("Texture Loaded Successfully: " + filePath + " with ID: " + textureID);
+        return textureID;
+    }
+
+    // Load texture from file and bind it to the texture ID
+    private static boolean loadTextureFile(String filePath, int textureID) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer width = stack.mallocInt(1);
+            IntBuffer height = stack.mallocInt(1);
+            IntBuffer channels = stack.mallocInt(1);
+
+            ByteBuffer image = STBImage.stbi_load(filePath, width, height, channels, 4);
+            if (image != null) {
+                GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, width.get(), height.get(), 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, image);
+                GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
+                STBImage.stbi_image_free(image);
+                return true; // Texture loaded successfully
+            } else {
+                return false; // Texture loading failed
+            }
+        }
+    }
+
+    // Get texture coordinates for the given texture ID
+    public static float[] getTextureCoords(int textureID) {
+        return textureCoordinates.getOrDefault(textureID, new float[]{
+            0.0f, 0.0f, // Bottom-left
+            1.0f, 0.0f, // Bottom-right
+            1.0f, 1.0f, // Top-right
+            0.0f, 1.0f  // Top-left
+        });
+    }
+}
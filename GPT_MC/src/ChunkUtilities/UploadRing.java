@@ -0,0 +1,173 @@
+package ChunkUtilities;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL44;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+// Staging ring for mesh uploads: geometry is copied once into mapped memory, then the GPU copies it into the
+// chunk buffers with glCopyBufferSubData, so uploads never make the driver copy or wait inside glBufferSubData.
+//   Persistent path (GL 4.4 or ARB_buffer_storage): the ring stays mapped for its whole life. Fences mark how far
+//   the GPU has read; writing over a range whose copies may still be pending waits on its fence (a stall).
+//   Fallback: each write maps just its range unsynchronized; when the ring is full it is orphaned, so the
+//   driver hands out fresh storage instead of waiting.
+// GL thread only.
+public class UploadRing {
+    private static final long FENCE_TIMEOUT_NANOS = 1_000_000_000L; // Per wait; a slow GPU is waited on again
+
+    private final int size;
+    private final boolean persistent;
+    private final int bufferID;
+    private final long mappedAddress; // Persistent path only
+
+    private int head; // Next free byte
+    private int fenceStart; // Start of the bytes written since the last fence
+    private final ArrayDeque<long[]> fences = new ArrayDeque<>(); // {sync, start, end}, oldest first
+
+    public UploadRing(int size) {
+        this.size = size;
+        GLCapabilities caps = GL.getCapabilities();
+        persistent = caps.OpenGL44 || caps.GL_ARB_buffer_storage;
+
+        bufferID = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, bufferID);
+        if (persistent) {
+            int flags = GL30.GL_MAP_WRITE_BIT | GL44.GL_MAP_PERSISTENT_BIT | GL44.GL_MAP_COHERENT_BIT;
+            GL44.glBufferStorage(GL31.GL_COPY_READ_BUFFER, (long) size, flags);
+            ByteBuffer mapped = GL30.glMapBufferRange(GL31.GL_COPY_READ_BUFFER, 0L, (long) size, flags);
+            mappedAddress = MemoryUtil.memAddress(mapped);
+        } else {
+            GL15.glBufferData(GL31.GL_COPY_READ_BUFFER, (long) size, GL15.GL_STREAM_DRAW);
+            mappedAddress = 0L;
+        }
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+        MeshStats.log(LogLevel.INFO, "Mesh upload ring: " + (size >> 20) + " MB, "
+                + (persistent ? "persistently mapped" : "orphaned map ranges"));
+    }
+
+    // Copy bytes (position to limit) into the buffer at targetOffset through the ring.
+    // Returns false if the data is larger than the ring; the caller then uploads it directly.
+    public boolean copyTo(int targetBufferID, long targetOffset, ByteBuffer bytes) {
+        int length = bytes.remaining();
+        if (length == 0) {
+            return true;
+        }
+        if (length > size) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        int offset = reserve(length);
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, bufferID);
+        if (persistent) {
+            MemoryUtil.memCopy(MemoryUtil.memAddress(bytes), mappedAddress + offset, length);
+        } else {
+            // Never reused before the next orphaning, so no synchronization is needed
+            int access = GL30.GL_MAP_WRITE_BIT | GL30.GL_MAP_INVALIDATE_RANGE_BIT | GL30.GL_MAP_UNSYNCHRONIZED_BIT;
+            ByteBuffer mapped = GL30.glMapBufferRange(GL31.GL_COPY_READ_BUFFER, (long) offset, (long) length, access);
+            MemoryUtil.memCopy(MemoryUtil.memAddress(bytes), MemoryUtil.memAddress(mapped), length);
+            GL15.glUnmapBuffer(GL31.GL_COPY_READ_BUFFER);
+        }
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, targetBufferID);
+        GL31.glCopyBufferSubData(GL31.GL_COPY_READ_BUFFER, GL31.GL_COPY_WRITE_BUFFER, (long) offset, targetOffset, (long) length);
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+        MeshStats.recordStreamedUpload(length, System.nanoTime() - start);
+        return true;
+    }
+
+    // Offset of length free bytes, wrapping to the start (and waiting for the GPU there) when needed
+    private int reserve(int length) {
+        if (head + length > size) {
+            if (persistent) {
+                fence(); // The bytes before the wrap get their own fence
+                head = 0;
+                fenceStart = 0;
+            } else {
+                GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, bufferID);
+                GL15.glBufferData(GL31.GL_COPY_READ_BUFFER, (long) size, GL15.GL_STREAM_DRAW); // Orphan
+                GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+                head = 0;
+            }
+        }
+        int offset = head;
+        if (persistent) {
+            // Fenced ranges ahead of the write are the oldest ones: wait for those the write would overlap
+            while (!fences.isEmpty() && overlaps(fences.peekFirst(), offset, offset + length)) {
+                waitFor(fences.pollFirst()[0]);
+            }
+        }
+        head += length;
+        return offset;
+    }
+
+    private static boolean overlaps(long[] fence, int start, int end) {
+        return fence[1] < end && start < fence[2];
+    }
+
+    // Block until the copies behind a fence have finished. The range is never handed out before that:
+    // a timed-out wait is repeated, and a failed one falls back to glFinish(), which retires every fence.
+    private void waitFor(long sync) {
+        int status = GL32.glClientWaitSync(sync, 0, 0L);
+        if (status != GL32.GL_ALREADY_SIGNALED && status != GL32.GL_CONDITION_SATISFIED) {
+            long start = System.nanoTime();
+            status = GL32.glClientWaitSync(sync, GL32.GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT_NANOS);
+            while (status == GL32.GL_TIMEOUT_EXPIRED) {
+                MeshStats.log(LogLevel.INFO, "Upload ring fence not signaled after "
+                        + ((System.nanoTime() - start) / 1_000_000) + " ms, still waiting");
+                status = GL32.glClientWaitSync(sync, 0, FENCE_TIMEOUT_NANOS); // Commands were flushed above
+            }
+            if (status == GL32.GL_WAIT_FAILED) {
+                MeshStats.log(LogLevel.INFO, "Upload ring fence wait failed, finishing all GL commands instead");
+                GL11.glFinish();
+                retireFences();
+            }
+            MeshStats.recordUploadStall(System.nanoTime() - start);
+        }
+        GL32.glDeleteSync(sync);
+    }
+
+    // After glFinish() every fenced range is free again
+    private void retireFences() {
+        for (long[] fence : fences) {
+            GL32.glDeleteSync(fence[0]);
+        }
+        fences.clear();
+    }
+
+    // Mark everything written since the last fence as in flight (once per frame, after the uploads)
+    public void fence() {
+        if (!persistent || head == fenceStart) {
+            return;
+        }
+        long sync = GL32.glFenceSync(GL32.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        fences.addLast(new long[] {sync, fenceStart, head});
+        fenceStart = head;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void cleanup() {
+        retireFences();
+        if (persistent) {
+            GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, bufferID);
+            GL15.glUnmapBuffer(GL31.GL_COPY_READ_BUFFER);
+            GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+        }
+        GL15.glDeleteBuffers(bufferID);
+    }
+}
@@ -1,18 +1,54 @@
 package ChunkUtilities;
 
+import Block_Entities.BlockRegistry;
 import Block_Entities.Block_Types;
 
+// Voxels are immutable flyweights: there is exactly one instance per block ID, obtained through Voxel.of().
 public class Voxel {
-    public static final Voxel AIR = new Voxel(0); // Represents an empty block
+    private static final int PREALLOCATED_IDS = 256; // IDs interned up front; larger IDs are interned on demand
+    private static volatile Voxel[] interned = growTable(new Voxel[0], PREALLOCATED_IDS);
+
+    public static final Voxel AIR = of(0); // Represents an empty block
     private final int blockID;
    
 
-    public Voxel(int blockID) {
+    private Voxel(int blockID) {
         this.blockID = blockID;
     }
 
+    // Get the shared instance for a block ID (never allocates for IDs below PREALLOCATED_IDS)
+    public static Voxel of(int blockID) {
+        Voxel[] table = interned;
+        if (blockID >= 0 && blockID < table.length) {
+            return table[blockID];
+        }
+        return intern(blockID);
+    }
+
+    private static synchronized Voxel intern(int blockID) {
+        if (blockID < 0 || blockID > BlockRegistry.MAX_BLOCK_ID) {
+            throw new IllegalArgumentException("Invalid blockID: " + blockID);
+        }
+        Voxel[] table = interned;
+        if (blockID >= table.length) {
+            // Double (amortized growth), but never past the largest ID a block can have
+            table = growTable(table, Math.min(Math.max(table.length << 1, blockID + 1), BlockRegistry.MAX_BLOCK_ID + 1));
+            interned = table;
+        }
+        return table[blockID];
+    }
+
+    // Copy the existing instances into a larger table so every ID keeps its identity
+    private static Voxel[] growTable(Voxel[] old, int size) {
+        Voxel[] table = java.util.Arrays.copyOf(old, size);
+        for (int i = old.length; i < size; i++) {
+            table[i] = new Voxel(i);
+        }
+        return table;
+    }
+
     public boolean isSolid() {
-        return Block_Types.getBlockTypeByID(blockID).isSolid();
+        return BlockRegistry.isSolid(blockID);
     }
 
     public int getBlockID() {
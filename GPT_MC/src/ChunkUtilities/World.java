@@ -0,0 +1,205 @@
+package ChunkUtilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Holds every loaded chunk, keyed by its packed chunk position, and routes world-coordinate voxel access to them.
+public class World {
+    // Chunk coordinates are packed into 21 signed bits each (about +/- one million chunks per axis)
+    private static final int KEY_BITS = 21;
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    private final ChunkMap chunks = new ChunkMap();
+    private final ChunkRegionGrid regions = new ChunkRegionGrid(); // The same chunks, grouped for culling
+    private final MeshingService meshingService; // Background mesher (null = chunks mesh synchronously)
+    private final List<Chunk> remeshQueue = new ArrayList<>(); // Chunks with dirty sections, flushed once per frame
+
+    // Distance in chunks up to which chunks are meshed at full detail (e.g. -DlodDistance=6)
+    private static final float LOD_DISTANCE = Float.parseFloat(System.getProperty("lodDistance", "4"));
+    private static final float LOD_HYSTERESIS = 0.5f; // Chunks past a level threshold before switching
+
+    public World() {
+        this(null);
+    }
+
+    public World(MeshingService meshingService) {
+        this.meshingService = meshingService;
+    }
+
+    public MeshingService getMeshingService() {
+        return meshingService;
+    }
+
+    // Pack chunk coordinates into a single primitive key
+    public static long packKey(int chunkX, int chunkY, int chunkZ) {
+        return ((chunkX & KEY_MASK) << (2 * KEY_BITS)) | ((chunkY & KEY_MASK) << KEY_BITS) | (chunkZ & KEY_MASK);
+    }
+
+    // Chunk coordinate containing a world voxel coordinate
+    public static int toChunkCoord(int worldCoord) {
+        return worldCoord >> Chunk.CHUNK_SHIFT; // Arithmetic shift floors negative coordinates
+    }
+
+    // Voxel coordinate inside its chunk for a world voxel coordinate
+    public static int toLocalCoord(int worldCoord) {
+        return worldCoord & Chunk.CHUNK_MASK;
+    }
+
+    public Chunk getChunk(int chunkX, int chunkY, int chunkZ) {
+        return chunks.get(packKey(chunkX, chunkY, chunkZ));
+    }
+
+    // Get the chunk at a chunk position, generating it if it is not loaded yet
+    public Chunk loadChunk(int chunkX, int chunkY, int chunkZ) {
+        return loadChunk(chunkX, chunkY, chunkZ, true);
+    }
+
+    // buildMesh = false loads terrain without meshing it (headless use; edits still mark sections dirty)
+    public Chunk loadChunk(int chunkX, int chunkY, int chunkZ, boolean buildMesh) {
+        long key = packKey(chunkX, chunkY, chunkZ);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = new Chunk(this, chunkX, chunkY, chunkZ, buildMesh);
+            chunks.put(key, chunk);
+            regions.add(chunk);
+            markNeighborsDirty(chunk); // Their seam faces are now hidden behind this chunk
+        }
+        return chunk;
+    }
+
+    public void unloadChunk(int chunkX, int chunkY, int chunkZ) {
+        Chunk chunk = chunks.remove(packKey(chunkX, chunkY, chunkZ));
+        if (chunk != null) {
+            regions.remove(chunk);
+            chunk.releaseMesh(); // Also discards any mesh still being built
+            markNeighborsDirty(chunk); // Their seam faces are exposed again
+        }
+    }
+
+    // Remesh the sections of the six neighbors that touch a chunk (their border faces depend on it)
+    void markNeighborsDirty(Chunk chunk) {
+        for (Direction direction : Direction.values()) {
+            Chunk neighbor = getNeighbor(chunk, direction);
+            if (neighbor == null) {
+                continue;
+            }
+            if (direction.dy > 0) {
+                neighbor.markSectionsDirty(1); // Chunk above: only its bottom section touches
+            } else if (direction.dy < 0) {
+                neighbor.markSectionsDirty(1 << (Chunk.SECTION_COUNT - 1)); // Chunk below: only its top section
+            } else {
+                neighbor.markSectionsDirty(Chunk.ALL_SECTIONS);
+            }
+        }
+    }
+
+    // The chunk next to the given one in a direction, or null if it is not loaded
+    public Chunk getNeighbor(Chunk chunk, Direction direction) {
+        return getChunk(chunk.getChunkX() + direction.dx, chunk.getChunkY() + direction.dy, chunk.getChunkZ() + direction.dz);
+    }
+
+    // The loaded chunk containing a world voxel coordinate, or null
+    public Chunk getChunkAt(int worldX, int worldY, int worldZ) {
+        return getChunk(toChunkCoord(worldX), toChunkCoord(worldY), toChunkCoord(worldZ));
+    }
+
+    // World-coordinate voxel access (unloaded chunks read as air)
+
+    public int getBlockID(int worldX, int worldY, int worldZ) {
+        Chunk chunk = getChunkAt(worldX, worldY, worldZ);
+        if (chunk == null) {
+            return 0;
+        }
+        return chunk.getBlockID(toLocalCoord(worldX), toLocalCoord(worldY), toLocalCoord(worldZ));
+    }
+
+    public void setBlockID(int worldX, int worldY, int worldZ, int blockID) {
+        Chunk chunk = getChunkAt(worldX, worldY, worldZ);
+        if (chunk != null) {
+            chunk.setBlockID(toLocalCoord(worldX), toLocalCoord(worldY), toLocalCoord(worldZ), blockID);
+        }
+    }
+
+    public Voxel getVoxel(int worldX, int worldY, int worldZ) {
+        return Voxel.of(getBlockID(worldX, worldY, worldZ));
+    }
+
+    public void setVoxel(int worldX, int worldY, int worldZ, Voxel voxel) {
+        setBlockID(worldX, worldY, worldZ, voxel != null ? voxel.getBlockID() : 0);
+    }
+
+    // Pick each chunk's level of detail from its distance to the viewer (position in voxels).
+    // The level goes up by one every time the distance doubles, so a ring of chunks twice as far away
+    // costs about as many triangles as the previous ring and the total grows with the log of the view distance.
+    public void updateLevelsOfDetail(float viewerX, float viewerY, float viewerZ) {
+        float halfChunk = Chunk.CHUNK_SIZE * 0.5f;
+        for (Chunk chunk : chunks) {
+            float dx = ((chunk.getChunkX() << Chunk.CHUNK_SHIFT) + halfChunk - viewerX) / Chunk.CHUNK_SIZE;
+            float dy = ((chunk.getChunkY() << Chunk.CHUNK_SHIFT) + halfChunk - viewerY) / Chunk.CHUNK_SIZE;
+            float dz = ((chunk.getChunkZ() << Chunk.CHUNK_SHIFT) + halfChunk - viewerZ) / Chunk.CHUNK_SIZE;
+            float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+            // Only switch once the viewer is clearly past a threshold, so chunks on a boundary do not flip every frame
+            int current = chunk.getLodLevel();
+            int level = getLodLevel(distance);
+            if (level > current) {
+                level = Math.max(current, getLodLevel(distance - LOD_HYSTERESIS));
+            } else if (level < current) {
+                level = Math.min(current, getLodLevel(distance + LOD_HYSTERESIS));
+            }
+            chunk.setLodLevel(level);
+        }
+    }
+
+    // Level of detail for a distance in chunks: full detail up to lodDistance, then one level per doubling
+    public static int getLodLevel(float distanceInChunks) {
+        if (distanceInChunks < LOD_DISTANCE) {
+            return 0;
+        }
+        int level = 1 + (int) Math.floor(Math.log(distanceInChunks / LOD_DISTANCE) / Math.log(2));
+        return Math.min(level, Chunk.MAX_LOD_LEVEL);
+    }
+
+    // Called by Chunk when it first gets a dirty section in this frame
+    void queueRemesh(Chunk chunk) {
+        remeshQueue.add(chunk);
+    }
+
+    // Remesh every dirty section once (call at the end of the frame, after all edits)
+    public void flushRemeshes() {
+        for (int i = 0; i < remeshQueue.size(); i++) {
+            remeshQueue.get(i).rebuildDirtySections();
+        }
+        remeshQueue.clear();
+    }
+
+    // Iterate over the loaded chunks
+    public void forEachChunk(Consumer<Chunk> action) {
+        chunks.forEach(action);
+    }
+
+    public Iterable<Chunk> getChunks() {
+        return chunks;
+    }
+
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    // Loaded chunks grouped into regions (see FrustumCuller)
+    public ChunkRegionGrid getRegions() {
+        return regions;
+    }
+
+    // Release the GPU resources of every loaded chunk, and the cached meshes they shared
+    public void cleanup() {
+        chunks.forEach(Chunk::releaseMesh);
+        chunks.clear();
+        regions.clear();
+        remeshQueue.clear();
+        if (meshingService != null && meshingService.getMeshCache() != null) {
+            meshingService.getMeshCache().clear();
+        }
+    }
+}
@@ -94,6 +94,34 @@ public class ShaderProgram {
         GL20.glUniform4f(location, x, y, z, w);
     }
 
+    // Set an integer uniform (also used for sampler units)
+    public void setUniform1i(String name, int value) {
+        // Ensure the shader program is in use before setting the uniform
+        use();
+
+        int location = GL20.glGetUniformLocation(programID, name);
+        if (location == -1) {
+            System.err.println("Uniform variable not found: " + name);
+            return;
+        }
+
+        GL20.glUniform1i(location, value);
+    }
+
+    // Set a float uniform
+    public void setUniform1f(String name, float value) {
+        // Ensure the shader program is in use before setting the uniform
+        use();
+
+        int location = GL20.glGetUniformLocation(programID, name);
+        if (location == -1) {
+            System.err.println("Uniform variable not found: " + name);
+            return;
+        }
+
+        GL20.glUniform1f(location, value);
+    }
+
     public void cleanup() {
         GL20.glUseProgram(0); // Unbind the program
         GL20.glDetachShader(programID, vertexShaderID);
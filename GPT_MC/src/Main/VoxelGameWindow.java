@@ -12,12 +12,23 @@ import org.lwjgl.opengl.GL30;
 import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
 
-import Block_Entities.Block_Types;
+import Block_Entities.BlockRegistry;
 import ChunkUtilities.Chunk;
-import ChunkUtilities.ChunkMesh;
+import ChunkUtilities.ChunkBuffers;
+import ChunkUtilities.ChunkRenderer;
+import ChunkUtilities.FrustumCuller;
+import ChunkUtilities.LogLevel;
+import ChunkUtilities.MeshCache;
+import ChunkUtilities.MeshStats;
+import ChunkUtilities.MeshingService;
+import ChunkUtilities.OcclusionCuller;
+import ChunkUtilities.OcclusionQueries;
+import ChunkUtilities.TextureLoader;
+import ChunkUtilities.World;
 
 import java.io.IOException;
 import java.nio.FloatBuffer;
+import java.nio.file.Paths;
 
 public class VoxelGameWindow {
 
@@ -31,12 +42,25 @@ public class VoxelGameWindow {
     // CubeTest instance
     private CubeTest cubeTest;
     
-    public static Block_Types BlockTypes;
-    
-    //Chunk Test
-    
-    private Chunk chunk;
-    private ChunkMesh chunkMesh;
+    // World holding every loaded chunk
+    private World world;
+    private static final int VIEW_RADIUS = 1; // Chunks loaded around the origin on the X/Z plane
+
+    // Chunk meshes are built on worker threads; the render thread only uploads them, within a per-frame budget
+    private MeshingService meshingService;
+    private ChunkRenderer chunkRenderer; // Submits all chunk meshes from shared buffers
+    private final FrustumCuller frustumCuller = new FrustumCuller(); // Picks the section meshes in view
+    private final OcclusionCuller occlusionCuller = new OcclusionCuller(); // Skips sections hidden behind solid ground
+    private static final boolean OCCLUSION_CULLING = Boolean.parseBoolean(System.getProperty("occlusionCulling", "true"));
+    // GPU occlusion queries on section bounding boxes (e.g. -DocclusionQueries=true); null when disabled
+    private static final boolean OCCLUSION_QUERIES = Boolean.parseBoolean(System.getProperty("occlusionQueries", "false"));
+    private OcclusionQueries occlusionQueries;
+    private ShaderProgram occlusionBoxShader;
+    private static final long UPLOAD_BUDGET_NANOS = 2_000_000L; // 2 ms of uploads per frame
+    private static final long UPLOAD_BUDGET_BYTES = 8L * 1024 * 1024; // 8 MB of vertex data per frame
+    private static final long DEFRAGMENT_BUDGET_BYTES = 512L * 1024; // Chunk geometry moved per frame to close holes
+    private static final long MESH_CACHE_GPU_BYTES = 64L * 1024 * 1024; // Unused shared meshes kept on the GPU
+    private static final long MESH_CACHE_DISK_BYTES = 256L * 1024 * 1024; // Mesh blobs kept on disk
     
     // Shader program
     public ShaderProgram shaderProgram;
@@ -50,7 +74,6 @@ public class VoxelGameWindow {
     private boolean firstMouse = true;
 
     public static void main(String[] args) {
-    	BlockTypes = Block_Types.registerDefaultBlocks();
         new VoxelGameWindow().run();
         
     }
@@ -68,13 +91,23 @@ public class VoxelGameWindow {
 
 		
         //cubeTest = new CubeTest();  // Initialize CubeTest
-        chunk = new Chunk();
-        chunkMesh = chunk.generateMesh();
+        String meshCacheDir = System.getProperty("meshCacheDir"); // e.g. -DmeshCacheDir=cache/meshes (unset = memory only)
+        MeshCache meshCache = meshCacheDir != null
+                ? new MeshCache(MESH_CACHE_GPU_BYTES, Paths.get(meshCacheDir), MESH_CACHE_DISK_BYTES)
+                : new MeshCache(MESH_CACHE_GPU_BYTES);
+        meshingService = new MeshingService(meshCache);
+        world = new World(meshingService);
+        for (int cx = -VIEW_RADIUS; cx <= VIEW_RADIUS; cx++) {
+            for (int cz = -VIEW_RADIUS; cz <= VIEW_RADIUS; cz++) {
+                world.loadChunk(cx, 0, cz);
+            }
+        }
         
         loop();
 
         // Clean up
         //cubeTest.cleanup();
+        cleanup();
         shaderProgram.cleanup();  // Clean up shader resources
         GLFW.glfwDestroyWindow(window);
         GLFW.glfwTerminate();
@@ -151,8 +184,22 @@ public class VoxelGameWindow {
         GLFW.glfwSetInputMode(window, GLFW.GLFW_CURSOR, GLFW.GLFW_CURSOR_DISABLED);
         System.out.println("Cursor input mode set.");
 
+        // Load the block registry (res/blocks.json) before any chunk is built
+        BlockRegistry.load("blocks.json");
+
         // Create the shader program
-        shaderProgram = new ShaderProgram("shaders/vertex.glsl", "shaders/fragment.glsl");
+        shaderProgram = new ShaderProgram("shaders/chunk_vertex.glsl", "shaders/chunk_fragment.glsl");
+
+        // Every block texture in one array texture, so each chunk mesh draws with a single call
+        TextureLoader.buildTextureArray();
+
+        // Shared chunk geometry buffers and the multi-draw renderer
+        chunkRenderer = new ChunkRenderer();
+        if (OCCLUSION_QUERIES) {
+            occlusionBoxShader = new ShaderProgram("shaders/occlusion_box_vertex.glsl", "shaders/occlusion_box_fragment.glsl");
+            occlusionQueries = new OcclusionQueries();
+            chunkRenderer.setOcclusionQueries(occlusionQueries);
+        }
 
         // Create the sky sphere
         skySphere = new SkySphere(32, 32, 50.0f); // Large enough to encompass the scene
@@ -231,7 +278,13 @@ public class VoxelGameWindow {
             // Use the shader program
             shaderProgram.use();
 
-            
+            // Upload meshes finished by the background workers
+            meshingService.processUploads(UPLOAD_BUDGET_NANOS, UPLOAD_BUDGET_BYTES);
+            ChunkBuffers.endUploads();
+
+            // Move a few meshes into holes left by freed ones, so the chunk buffers rarely need to grow
+            ChunkBuffers.defragment(DEFRAGMENT_BUDGET_BYTES);
+
             renderChunk();
 
             // Render the cube
@@ -255,7 +308,14 @@ public class VoxelGameWindow {
             GLFW.glfwPollEvents();
 
             // Handle camera movement
-            camera.handleKeyboardInput(window, chunk);
+            camera.handleKeyboardInput(window, world);
+
+            // Pick the level of detail of each chunk from the new camera position (positions are in voxels)
+            Vector3f viewer = camera.getPosition();
+            world.updateLevelsOfDetail(viewer.x / Chunk.VoxelSize, viewer.y / Chunk.VoxelSize, viewer.z / Chunk.VoxelSize);
+
+            // Remesh the sections edited this frame, once each
+            world.flushRemeshes();
             
             
             
@@ -411,8 +471,13 @@ public class VoxelGameWindow {
         // Use the chunk shader program (assuming you have set up a shader program for the chunk)
         shaderProgram.use();
 
-        // Create view matrix from the camera (do not modify it)
-        Matrix4f viewMatrix = camera.getViewMatrix(); // Use the camera's full view matrix
+        // Terrain is drawn relative to the origin of the camera's chunk (in voxels): chunk origins are made
+        // camera-relative in integer math (see ChunkRenderer) and the view matrix only keeps the small remainder
+        Vector3f viewer = camera.getPosition();
+        int originX = World.toChunkCoord((int) Math.floor(viewer.x / Chunk.VoxelSize)) << Chunk.CHUNK_SHIFT;
+        int originY = World.toChunkCoord((int) Math.floor(viewer.y / Chunk.VoxelSize)) << Chunk.CHUNK_SHIFT;
+        int originZ = World.toChunkCoord((int) Math.floor(viewer.z / Chunk.VoxelSize)) << Chunk.CHUNK_SHIFT;
+        Matrix4f viewMatrix = camera.getViewMatrix(originX * Chunk.VoxelSize, originY * Chunk.VoxelSize, originZ * Chunk.VoxelSize);
         try (MemoryStack stack = MemoryStack.stackPush()) {
             FloatBuffer viewBuffer = stack.mallocFloat(16);
             viewMatrix.get(viewBuffer);
@@ -427,22 +492,57 @@ public class VoxelGameWindow {
             shaderProgram.setUniformMatrix4fv("projection", projectionBuffer);
         }
 
-        // Set the model matrix (you can apply transformations to the chunk here if needed)
-        Matrix4f modelMatrix = new Matrix4f(); // Identity matrix, no transformation
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            FloatBuffer modelBuffer = stack.mallocFloat(16);
-            modelMatrix.get(modelBuffer);
-            shaderProgram.setUniformMatrix4fv("model", modelBuffer);
+        // Render every loaded chunk at its position in the world. Vertices are chunk-local voxel coordinates;
+        // the shader adds the chunk's integer origin relative to the camera's chunk (per draw) before converting
+        // to float, so precision depends on the distance to the camera, not to the world origin.
+        shaderProgram.setUniform1f("voxelSize", Chunk.VoxelSize);
+        shaderProgram.setUniform1i("missingTextureLayer", TextureLoader.getMissingTextureLayer());
+        shaderProgram.setUniform1i("textureArray", 0);
+        TextureLoader.bindTextureArray(0); // One bind for every chunk
+        chunkRenderer.begin(originX, originY, originZ);
+        if (occlusionQueries != null) {
+            occlusionQueries.begin(viewer.x / Chunk.VoxelSize, viewer.y / Chunk.VoxelSize, viewer.z / Chunk.VoxelSize);
+        }
+        frustumCuller.update(projectionMatrix, viewMatrix, Chunk.VoxelSize, originX, originY, originZ);
+        boolean occlusionCulled = OCCLUSION_CULLING && occlusionCuller.cull(world, viewer.x / Chunk.VoxelSize,
+                viewer.y / Chunk.VoxelSize, viewer.z / Chunk.VoxelSize, frustumCuller, chunkRenderer);
+        if (!occlusionCulled) {
+            frustumCuller.cull(world, chunkRenderer); // Camera outside the loaded chunks: only sections in view
+        }
+        chunkRenderer.draw(); // The whole terrain in one indirect draw (one per chunk on the fallback path)
+
+        if (occlusionQueries != null) {
+            // Test the boxes of this frame's sections against the depth just drawn; next frame skips the hidden ones
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                FloatBuffer matrixBuffer = stack.mallocFloat(16);
+                occlusionBoxShader.setUniformMatrix4fv("view", viewMatrix.get(matrixBuffer));
+                occlusionBoxShader.setUniformMatrix4fv("projection", projectionMatrix.get(matrixBuffer));
+            }
+            occlusionQueries.issue(Chunk.VoxelSize, originX, originY, originZ);
         }
-
-        // Render the chunk
-        chunkMesh.render();
     }
 
 
     
     private void cleanup() {
-    	chunkMesh.cleanup();
+    	meshingService.shutdown(); // Stop meshing before the chunks release their GPU buffers
+    	MeshStats.log(LogLevel.INFO, "Chunk meshing stats: " + MeshStats.toJson());
+    	String statsFile = System.getProperty("meshStatsFile"); // e.g. -DmeshStatsFile=mesh-stats.json
+    	if (statsFile != null) {
+    	    try {
+    	        MeshStats.dump(Paths.get(statsFile));
+    	    } catch (IOException e) {
+    	        System.err.println("Failed to write mesh stats to " + statsFile + ": " + e.getMessage());
+    	    }
+    	}
+    	world.cleanup();
+    	chunkRenderer.cleanup();
+    	if (occlusionQueries != null) {
+    	    occlusionQueries.cleanup();
+    	    occlusionBoxShader.cleanup();
+    	}
+    	ChunkBuffers.cleanup(); // After every chunk mesh has been released
+    	TextureLoader.deleteTextureArray();
     }
     
 }